@@ -0,0 +1,199 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107;
+
+import com.tangosol.net.ConfigurableCacheFactory;
+import com.tangosol.net.DefaultConfigurableCacheFactory;
+import com.tangosol.net.partition.KeyAssociator;
+import com.tangosol.run.xml.XmlElement;
+import com.tangosol.run.xml.XmlHelper;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Maps caches to the backing map schemes of coherence-jsr107-cache-config.xml.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+final class BackingMapSchemes {
+    private static final String RESOURCE = "coherence-jsr107-cache-config.xml";
+    private static final String MAX_BYTES = "max-bytes";
+    private static final String MAX_SIZE = "max-size";
+    private static final String DISTRIBUTED_SCHEME = "distributed-scheme";
+
+    private BackingMapSchemes() {
+    }
+
+    /**
+     * Merge the scheme for the backing map type into the factory's configuration,
+     * if missing, and map the cache to it.
+     * <p/>
+     * Must be called before the cache is first ensured; a backing map that
+     * already exists is not replaced.
+     *
+     * @param ccf       the cache factory
+     * @param cacheName the cache name
+     * @param type      the backing map type
+     * @param maxBytes  the size limit per storage member, or 0 for the scheme's default
+     */
+    static void ensureMapping(ConfigurableCacheFactory ccf, String cacheName,
+                              CoherenceCacheConfiguration.BackingMapType type, long maxBytes) {
+        synchronized (ccf) {
+            XmlElement config = (XmlElement) ccf.getConfig().clone();
+
+            XmlElement schemes = config.ensureElement("caching-schemes");
+            if (findScheme(schemes, type.getSchemeName()) == null) {
+                XmlElement source = XmlHelper.loadFileOrResource(RESOURCE, "JSR 107 cache configuration");
+                XmlElement scheme = findScheme(source.getSafeElement("caching-schemes"), type.getSchemeName());
+                schemes.getElementList().add(scheme.clone());
+            }
+
+            XmlElement mappings = config.ensureElement("caching-scheme-mapping");
+            for (Iterator iter = mappings.getElementList().iterator(); iter.hasNext(); ) {
+                XmlElement mapping = (XmlElement) iter.next();
+                if (cacheName.equals(mapping.getSafeElement("cache-name").getString())) {
+                    iter.remove();
+                }
+            }
+            XmlElement mapping = mappings.addElement("cache-mapping");
+            mapping.addElement("cache-name").setString(cacheName);
+            mapping.addElement("scheme-name").setString(type.getSchemeName());
+            if (maxBytes > 0) {
+                XmlElement params = mapping.addElement("init-params");
+                // a count of units, as for high-units
+                addParam(params, MAX_BYTES, String.valueOf(maxBytes));
+                // a memory size, which Coherence reads as megabytes without a unit
+                addParam(params, MAX_SIZE, maxBytes + "B");
+            }
+
+            ccf.setConfig(config);
+        }
+    }
+
+    /**
+     * Check, without changing the factory's configuration, that
+     * {@link #ensureAssociation} will accept the cache once it is mapped to
+     * the scheme of the backing map type.
+     *
+     * @param ccf       the cache factory
+     * @param cacheName the cache name
+     * @param type      the backing map type the cache is to be mapped with
+     * @throws IllegalStateException if the cache would not be mapped to a distributed scheme
+     */
+    static void checkAssociation(ConfigurableCacheFactory ccf, String cacheName,
+                                 CoherenceCacheConfiguration.BackingMapType type) {
+        if (!(ccf instanceof DefaultConfigurableCacheFactory)) {
+            throw new IllegalStateException("Key association requires a DefaultConfigurableCacheFactory");
+        }
+        String schemeType;
+        if (type == CoherenceCacheConfiguration.BackingMapType.CONFIGURED) {
+            DefaultConfigurableCacheFactory dccf = (DefaultConfigurableCacheFactory) ccf;
+            synchronized (ccf) {
+                schemeType = dccf.resolveScheme(dccf.findSchemeMapping(cacheName)).getName();
+            }
+        } else {
+            XmlElement source = XmlHelper.loadFileOrResource(RESOURCE, "JSR 107 cache configuration");
+            schemeType = findScheme(source.getSafeElement("caching-schemes"), type.getSchemeName()).getName();
+        }
+        if (!DISTRIBUTED_SCHEME.equals(schemeType)) {
+            throw new IllegalStateException("Key association requires a " + DISTRIBUTED_SCHEME
+                + ", but " + cacheName + " is mapped to a " + schemeType);
+        }
+    }
+
+    /**
+     * Map the cache to a copy of the partitioned scheme it is mapped to, whose
+     * service places keys with the given key associator. The copy, and its
+     * service, are shared by the caches using the same scheme and associator.
+     * <p/>
+     * Must be called before the cache is first ensured, after
+     * {@link #ensureMapping} if that is called too.
+     *
+     * @param ccf           the cache factory
+     * @param cacheName     the cache name
+     * @param keyAssociator the key associator class
+     * @throws IllegalStateException if the cache is not mapped to a distributed scheme
+     */
+    static void ensureAssociation(ConfigurableCacheFactory ccf, String cacheName,
+                                  Class<? extends KeyAssociator> keyAssociator) {
+        if (!(ccf instanceof DefaultConfigurableCacheFactory)) {
+            throw new IllegalStateException("Key association requires a DefaultConfigurableCacheFactory");
+        }
+        DefaultConfigurableCacheFactory dccf = (DefaultConfigurableCacheFactory) ccf;
+        synchronized (ccf) {
+            DefaultConfigurableCacheFactory.CacheInfo info = dccf.findSchemeMapping(cacheName);
+            XmlElement resolved = dccf.resolveScheme(info);
+            if (!DISTRIBUTED_SCHEME.equals(resolved.getName())) {
+                throw new IllegalStateException("Key association requires a " + DISTRIBUTED_SCHEME
+                    + ", but " + cacheName + " is mapped to a " + resolved.getName());
+            }
+            String suffix = "-" + keyAssociator.getName();
+            String schemeName = info.getSchemeName() + suffix;
+
+            XmlElement config = (XmlElement) ccf.getConfig().clone();
+
+            XmlElement schemes = config.ensureElement("caching-schemes");
+            if (findScheme(schemes, schemeName) == null) {
+                XmlElement scheme = (XmlElement) resolved.clone();
+                scheme.getElementList().remove(scheme.getElement("scheme-ref"));
+                scheme.ensureElement("scheme-name").setString(schemeName);
+                String serviceName = scheme.getSafeElement("service-name").getString("DistributedCache");
+                scheme.ensureElement("service-name").setString(serviceName + suffix);
+                XmlElement associator = scheme.ensureElement("key-associator");
+                associator.getElementList().clear();
+                associator.addElement("class-name").setString(keyAssociator.getName());
+                schemes.getElementList().add(scheme);
+            }
+
+            XmlElement mappings = config.ensureElement("caching-scheme-mapping");
+            XmlElement mapping = null;
+            for (XmlElement candidate : (List<XmlElement>) mappings.getElementList()) {
+                if (cacheName.equals(candidate.getSafeElement("cache-name").getString())) {
+                    mapping = candidate;
+                }
+            }
+            if (mapping == null) {
+                mapping = mappings.addElement("cache-mapping");
+                mapping.addElement("cache-name").setString(cacheName);
+            }
+            mapping.ensureElement("scheme-name").setString(schemeName);
+
+            ccf.setConfig(config);
+        }
+    }
+
+    private static void addParam(XmlElement params, String name, String value) {
+        XmlElement param = params.addElement("init-param");
+        param.addElement("param-name").setString(name);
+        param.addElement("param-value").setString(value);
+    }
+
+    private static XmlElement findScheme(XmlElement schemes, String schemeName) {
+        for (XmlElement scheme : (List<XmlElement>) schemes.getElementList()) {
+            if (schemeName.equals(scheme.getSafeElement("scheme-name").getString())) {
+                return scheme;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107;
+
+import com.tangosol.util.Converter;
+
+import javax.cache.CacheException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A read-only map over values still in their Binary form, each value being
+ * decoded the first time it is read and kept from then on.
+ * <p/>
+ * {@link #decodeAll} decodes whatever has not been read yet, splitting the
+ * work over several threads for large maps.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public class BinaryValueMap<K, V> extends AbstractMap<K, V> {
+    private static final int PARALLEL_THRESHOLD = 512;
+    private static final int CHUNK_SIZE = 128;
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+        Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "CoherenceCache-decode-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+    private final Map<K, ?> binaries;
+    private final Converter decoder;
+    private final ConcurrentHashMap<K, V> decoded;
+
+    /**
+     * @param binaries the keys and their Binary values
+     * @param decoder  converts a Binary value to the value
+     */
+    BinaryValueMap(Map<K, ?> binaries, Converter decoder) {
+        this.binaries = binaries;
+        this.decoder = decoder;
+        this.decoded = new ConcurrentHashMap<K, V>();
+    }
+
+    @Override
+    public int size() {
+        return binaries.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return binaries.containsKey(key);
+    }
+
+    @Override
+    public V get(Object key) {
+        V value = decoded.get(key);
+        if (value == null && binaries.containsKey(key)) {
+            value = decode((K) key);
+        }
+        return value;
+    }
+
+    /**
+     * Decode every value not read yet, in parallel if there are many.
+     */
+    public void decodeAll() {
+        List<K> pending = new ArrayList<K>();
+        for (K key : binaries.keySet()) {
+            if (!decoded.containsKey(key)) {
+                pending.add(key);
+            }
+        }
+        if (pending.size() < PARALLEL_THRESHOLD) {
+            for (K key : pending) {
+                decode(key);
+            }
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for (int start = 0; start < pending.size(); start += CHUNK_SIZE) {
+            final List<K> chunk = pending.subList(start, Math.min(pending.size(), start + CHUNK_SIZE));
+            futures.add(EXECUTOR.submit(new Runnable() {
+                @Override
+                public void run() {
+                    for (K key : chunk) {
+                        decode(key);
+                    }
+                }
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CacheException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new CacheException(cause);
+        }
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return Collections.unmodifiableSet(binaries.keySet());
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                final Iterator<K> keys = binaries.keySet().iterator();
+                return new Iterator<Entry<K, V>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return keys.hasNext();
+                    }
+
+                    @Override
+                    public Entry<K, V> next() {
+                        K key = keys.next();
+                        return new SimpleImmutableEntry<K, V>(key, get(key));
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return binaries.size();
+            }
+        };
+    }
+
+    private V decode(K key) {
+        V value = (V) decoder.convert(binaries.get(key));
+        V existing = decoded.putIfAbsent(key, value);
+        return existing == null ? value : existing;
+    }
+}
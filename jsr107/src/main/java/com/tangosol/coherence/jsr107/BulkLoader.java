@@ -0,0 +1,268 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107;
+
+import com.tangosol.coherence.jsr107.io.RecordDecoder;
+
+import javax.cache.CacheException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Streams entries from a channel into a cache.
+ * <p/>
+ * Records are decoded on the calling thread. For a partitioned cache their
+ * keys are converted to Binary there too, to find their partitions, and the
+ * entries are gathered by partition across the whole input, a partition's
+ * batch being handed to a pool of workers once it is full, so each batch is
+ * written to a single member. The batches gathering hold at most
+ * {@link #PENDING_BATCHES} batches' worth of entries; beyond that the
+ * largest is handed over early.
+ * <p/>
+ * The workers convert the values to Binary and write the batches through
+ * {@link CoherenceCache#putAllEntries}, which sets each entry through an
+ * entry processor. The pool's queue holds as many batches as there are
+ * workers and the caller writes a batch itself when the queue is full.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+class BulkLoader<K, V> {
+    private static final int INITIAL_BUFFER_SIZE = 1 << 20;
+    private static final int PENDING_BATCHES = 16;
+
+    private final CoherenceCache<K, V> cache;
+    private final int batchSize;
+    private final int threads;
+
+    /**
+     * @param cache     the cache to load into
+     * @param batchSize the number of entries written per batch
+     * @param threads   the number of worker threads
+     */
+    BulkLoader(CoherenceCache<K, V> cache, int batchSize, int threads) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads");
+        }
+        this.cache = cache;
+        this.batchSize = batchSize;
+        this.threads = threads;
+    }
+
+    /**
+     * Load every record of the channel.
+     *
+     * @param channel the channel, read to its end but not closed
+     * @param decoder the decoder of the records
+     * @return the number of entries loaded
+     */
+    long load(ReadableByteChannel channel, RecordDecoder<? extends K, ? extends V> decoder) throws IOException {
+        final AtomicLong count = new AtomicLong();
+        final AtomicReference<RuntimeException> failure = new AtomicReference<RuntimeException>();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<Runnable>(threads), new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            Batches batches = cache.isPartitioned() ?
+                new PartitionBatches(executor, count, failure) :
+                new SingleBatch(executor, count, failure);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE);
+            boolean endOfInput = false;
+            while (!endOfInput) {
+                endOfInput = channel.read(buffer) < 0;
+                buffer.flip();
+                int start = buffer.position();
+                Map.Entry<? extends K, ? extends V> entry;
+                while ((entry = decoder.decode(buffer, endOfInput)) != null) {
+                    batches.add(entry);
+                }
+                if (!endOfInput && buffer.position() == start && buffer.remaining() == buffer.capacity()) {
+                    // a single record does not fit, make room for it
+                    ByteBuffer larger = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+                    larger.put(buffer);
+                    buffer = larger;
+                } else {
+                    buffer.compact();
+                }
+            }
+            batches.flush();
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CacheException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+        checkFailure(failure);
+        return count.get();
+    }
+
+    private List<Map.Entry<? extends K, ? extends V>> newBatch() {
+        return new ArrayList<Map.Entry<? extends K, ? extends V>>(batchSize);
+    }
+
+    private static void checkFailure(AtomicReference<RuntimeException> failure) {
+        RuntimeException e = failure.get();
+        if (e != null) {
+            throw e;
+        }
+    }
+
+    /**
+     * Gathers decoded entries into batches and hands them to the workers.
+     */
+    private abstract class Batches {
+        private final ThreadPoolExecutor executor;
+        private final AtomicLong count;
+        private final AtomicReference<RuntimeException> failure;
+
+        Batches(ThreadPoolExecutor executor, AtomicLong count, AtomicReference<RuntimeException> failure) {
+            this.executor = executor;
+            this.count = count;
+            this.failure = failure;
+        }
+
+        abstract void add(Map.Entry<? extends K, ? extends V> entry);
+
+        /**
+         * Hand over the batches that are not full yet.
+         */
+        abstract void flush();
+
+        void submit(final List<Map.Entry<? extends K, ? extends V>> batch) {
+            checkFailure(failure);
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    if (failure.get() != null) {
+                        return;
+                    }
+                    try {
+                        cache.putAllEntries(batch);
+                        count.addAndGet(batch.size());
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Batches in decoding order, for caches that are not partitioned.
+     */
+    private class SingleBatch extends Batches {
+        private List<Map.Entry<? extends K, ? extends V>> batch = newBatch();
+
+        SingleBatch(ThreadPoolExecutor executor, AtomicLong count, AtomicReference<RuntimeException> failure) {
+            super(executor, count, failure);
+        }
+
+        @Override
+        void add(Map.Entry<? extends K, ? extends V> entry) {
+            batch.add(entry);
+            if (batch.size() == batchSize) {
+                submit(batch);
+                batch = newBatch();
+            }
+        }
+
+        @Override
+        void flush() {
+            if (!batch.isEmpty()) {
+                submit(batch);
+                batch = newBatch();
+            }
+        }
+    }
+
+    /**
+     * Batches of a single partition each.
+     */
+    private class PartitionBatches extends Batches {
+        private final Map<Integer, List<Map.Entry<? extends K, ? extends V>>> partitions =
+            new HashMap<Integer, List<Map.Entry<? extends K, ? extends V>>>();
+        private int pending;
+
+        PartitionBatches(ThreadPoolExecutor executor, AtomicLong count, AtomicReference<RuntimeException> failure) {
+            super(executor, count, failure);
+        }
+
+        @Override
+        void add(Map.Entry<? extends K, ? extends V> entry) {
+            Integer partition = cache.getKeyPartition(cache.toBinaryKey(entry.getKey()));
+            List<Map.Entry<? extends K, ? extends V>> batch = partitions.get(partition);
+            if (batch == null) {
+                batch = newBatch();
+                partitions.put(partition, batch);
+            }
+            batch.add(entry);
+            pending++;
+            if (batch.size() == batchSize) {
+                handOver(partition);
+            } else if (pending > batchSize * PENDING_BATCHES) {
+                handOver(largestPartition());
+            }
+        }
+
+        @Override
+        void flush() {
+            for (Iterator<List<Map.Entry<? extends K, ? extends V>>> iter = partitions.values().iterator();
+                 iter.hasNext(); ) {
+                submit(iter.next());
+                iter.remove();
+            }
+            pending = 0;
+        }
+
+        private void handOver(Integer partition) {
+            List<Map.Entry<? extends K, ? extends V>> batch = partitions.remove(partition);
+            pending -= batch.size();
+            submit(batch);
+        }
+
+        private Integer largestPartition() {
+            Integer largest = null;
+            int size = 0;
+            for (Map.Entry<Integer, List<Map.Entry<? extends K, ? extends V>>> entry : partitions.entrySet()) {
+                if (entry.getValue().size() > size) {
+                    largest = entry.getKey();
+                    size = entry.getValue().size();
+                }
+            }
+            return largest;
+        }
+    }
+}
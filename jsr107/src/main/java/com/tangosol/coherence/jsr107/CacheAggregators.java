@@ -0,0 +1,115 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107;
+
+import com.tangosol.util.InvocableMap;
+import com.tangosol.util.ValueExtractor;
+import com.tangosol.util.aggregator.ComparableMax;
+import com.tangosol.util.aggregator.ComparableMin;
+import com.tangosol.util.aggregator.Count;
+import com.tangosol.util.aggregator.DistinctValues;
+import com.tangosol.util.aggregator.DoubleAverage;
+import com.tangosol.util.aggregator.DoubleSum;
+import com.tangosol.util.aggregator.GroupAggregator;
+import com.tangosol.util.aggregator.LongSum;
+
+/**
+ * The built-in aggregators for {@link CoherenceCache#aggregate}, obtained with
+ * {@code cache.unwrap(CacheAggregators.class)}.
+ * <p/>
+ * All of them are parallel aggregators: each storage member aggregates its
+ * own entries and only the partial results cross the network. The extractors
+ * are adapted to the cache as by {@link CoherenceCache#getExtractor}.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public class CacheAggregators<K, V> {
+    private final CoherenceCache<K, V> cache;
+
+    CacheAggregators(CoherenceCache<K, V> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Count the entries. Aggregates to an Integer.
+     */
+    public InvocableMap.EntryAggregator count() {
+        return new Count();
+    }
+
+    /**
+     * Sum an extracted number as a double. Aggregates to a Double, or null if there are no entries.
+     */
+    public InvocableMap.EntryAggregator sum(ValueExtractor extractor) {
+        return new DoubleSum(cache.getExtractor(extractor));
+    }
+
+    /**
+     * Sum an extracted number as a long. Aggregates to a Long, or null if there are no entries.
+     */
+    public InvocableMap.EntryAggregator longSum(ValueExtractor extractor) {
+        return new LongSum(cache.getExtractor(extractor));
+    }
+
+    /**
+     * The least of an extracted Comparable, or null if there are no entries.
+     */
+    public InvocableMap.EntryAggregator min(ValueExtractor extractor) {
+        return new ComparableMin(cache.getExtractor(extractor));
+    }
+
+    /**
+     * The greatest of an extracted Comparable, or null if there are no entries.
+     */
+    public InvocableMap.EntryAggregator max(ValueExtractor extractor) {
+        return new ComparableMax(cache.getExtractor(extractor));
+    }
+
+    /**
+     * The average of an extracted number as a Double, or null if there are no entries.
+     */
+    public InvocableMap.EntryAggregator average(ValueExtractor extractor) {
+        return new DoubleAverage(cache.getExtractor(extractor));
+    }
+
+    /**
+     * The Set of the distinct extracted values.
+     */
+    public InvocableMap.EntryAggregator distinct(ValueExtractor extractor) {
+        return new DistinctValues(cache.getExtractor(extractor));
+    }
+
+    /**
+     * Group the entries by an extracted value and aggregate each group.
+     * Aggregates to a Map from the extracted values to the results of the
+     * aggregator, which stays parallel if the given aggregator is.
+     *
+     * @param extractor  the extractor of the grouping value
+     * @param aggregator the aggregator of each group
+     */
+    public InvocableMap.EntryAggregator groupBy(ValueExtractor extractor, InvocableMap.EntryAggregator aggregator) {
+        if (aggregator == null) {
+            throw new NullPointerException();
+        }
+        return GroupAggregator.createInstance(cache.getExtractor(extractor), aggregator);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107;
+
+import com.tangosol.coherence.jsr107.processors.ProcessorFactory;
+import com.tangosol.net.NamedCache;
+import com.tangosol.net.PartitionedService;
+import com.tangosol.net.partition.KeyPartitioningStrategy;
+
+import javax.cache.CacheException;
+import javax.cache.CacheLoader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Warms a cache from a source of keys and the cache loader.
+ * <p/>
+ * Keys are grouped by partition and each full group is sent with a single
+ * invokeAll, so the storage members owning the partitions call
+ * {@link CacheLoader#loadAll} for their keys in parallel.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+class CachePreloader<K, V> {
+    private static final int BATCH_SIZE = 500;
+
+    private final NamedCache namedCache;
+    private final ProcessorFactory<K, V> processorFactory;
+    private final CacheLoader<K, ? extends V> cacheLoader;
+    private final Iterable<? extends K> keySource;
+    private final PreloadListener listener;
+
+    private final AtomicLong keysProcessed = new AtomicLong();
+    private final AtomicLong entriesLoaded = new AtomicLong();
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<RuntimeException>();
+
+    CachePreloader(NamedCache namedCache, ProcessorFactory<K, V> processorFactory,
+                   CacheLoader<K, ? extends V> cacheLoader, Iterable<? extends K> keySource,
+                   PreloadListener listener) {
+        this.namedCache = namedCache;
+        this.processorFactory = processorFactory;
+        this.cacheLoader = cacheLoader;
+        this.keySource = keySource;
+        this.listener = listener;
+    }
+
+    /**
+     * Load every key of the source absent from the cache.
+     *
+     * @return the number of entries loaded
+     */
+    long preload() {
+        KeyPartitioningStrategy strategy = namedCache.getCacheService() instanceof PartitionedService ?
+            ((PartitionedService) namedCache.getCacheService()).getKeyPartitioningStrategy() : null;
+        int threads = Runtime.getRuntime().availableProcessors() * 2;
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<Runnable>(threads), new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            Map<Integer, List<K>> partitioned = new HashMap<Integer, List<K>>();
+            for (K key : keySource) {
+                if (key == null) {
+                    throw new NullPointerException();
+                }
+                int partition = strategy == null ? 0 : strategy.getKeyPartition(key);
+                List<K> keys = partitioned.get(partition);
+                if (keys == null) {
+                    keys = new ArrayList<K>(BATCH_SIZE);
+                    partitioned.put(partition, keys);
+                }
+                keys.add(key);
+                if (keys.size() == BATCH_SIZE) {
+                    submit(executor, keys);
+                    partitioned.remove(partition);
+                }
+            }
+            for (List<K> keys : partitioned.values()) {
+                submit(executor, keys);
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CacheException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+        checkFailure();
+        if (listener != null) {
+            listener.onProgress(namedCache.getCacheName(), keysProcessed.get(), entriesLoaded.get(), true);
+        }
+        return entriesLoaded.get();
+    }
+
+    private void submit(ThreadPoolExecutor executor, final List<K> keys) {
+        checkFailure();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (failure.get() != null) {
+                    return;
+                }
+                try {
+                    Map<?, Integer> result = namedCache.invokeAll(keys, processorFactory.getPreloadProcessor(cacheLoader));
+                    long loaded = 0;
+                    for (Integer count : result.values()) {
+                        loaded += count;
+                    }
+                    long processed = keysProcessed.addAndGet(keys.size());
+                    loaded = entriesLoaded.addAndGet(loaded);
+                    if (listener != null) {
+                        listener.onProgress(namedCache.getCacheName(), processed, loaded, false);
+                    }
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        });
+    }
+
+    private void checkFailure() {
+        RuntimeException e = failure.get();
+        if (e != null) {
+            throw e;
+        }
+    }
+}
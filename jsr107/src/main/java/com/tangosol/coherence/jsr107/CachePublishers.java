@@ -0,0 +1,77 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107;
+
+import com.tangosol.util.Filter;
+import com.tangosol.util.filter.AlwaysFilter;
+import org.reactivestreams.Publisher;
+
+import javax.cache.Cache;
+import java.util.Set;
+
+/**
+ * Reactive Streams views of a cache's bulk reads, obtained with
+ * {@code cache.unwrap(CachePublishers.class)}.
+ * <p/>
+ * The entries are fetched a partition at a time as the subscriber requests
+ * them, so a slow subscriber holds back the reads rather than the results
+ * piling up in memory.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public class CachePublishers<K, V> {
+    private final CoherenceCache<K, V> cache;
+
+    CachePublishers(CoherenceCache<K, V> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Publish the entries for the given keys, loading missing ones through the
+     * cache loader as {@link Cache#getAll(Set)} would.
+     *
+     * @param keys the keys
+     * @return a publisher of the entries found
+     */
+    public Publisher<Cache.Entry<K, V>> getAll(Set<? extends K> keys) {
+        return cache.publishAll(keys);
+    }
+
+    /**
+     * Publish the entries matching a filter.
+     *
+     * @param filter the filter
+     * @return a publisher of the matching entries
+     */
+    public Publisher<Cache.Entry<K, V>> entries(Filter filter) {
+        return cache.publishEntries(filter);
+    }
+
+    /**
+     * Publish every entry of the cache.
+     *
+     * @return a publisher of the entries
+     */
+    public Publisher<Cache.Entry<K, V>> entries() {
+        return cache.publishEntries(AlwaysFilter.INSTANCE);
+    }
+}
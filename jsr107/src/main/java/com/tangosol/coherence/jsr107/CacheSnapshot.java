@@ -0,0 +1,333 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107;
+
+import com.tangosol.coherence.jsr107.processors.ProcessorFactory;
+import com.tangosol.net.NamedCache;
+import com.tangosol.net.PartitionedService;
+import com.tangosol.net.partition.PartitionSet;
+import com.tangosol.util.Binary;
+import com.tangosol.util.Converter;
+import com.tangosol.util.filter.AlwaysFilter;
+import com.tangosol.util.filter.PartitionedFilter;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+/**
+ * A snapshot of a partitioned cache's Binary contents in memory-mapped files,
+ * one per partition, written and restored a partition per task in parallel.
+ * <p/>
+ * Each file holds the Binary keys and values exactly as the
+ * {@link com.tangosol.coherence.jsr107.processors.SnapshotAggregator} returns them.
+ * A snapshot is written to a temporary directory and only renamed into place
+ * once every partition is written, followed by a manifest of the files and
+ * their CRC32 checksums. A snapshot without a manifest is incomplete and is
+ * not restored, and one whose files do not match it fails to restore.
+ * <p/>
+ * A snapshot is only restored into an empty cache, so a member or client
+ * building the cache against a running cluster does not roll it back. Even
+ * then each entry is put only if absent, through the entry, so an entry
+ * written meanwhile is kept and restored entries are backed up as usual.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+class CacheSnapshot {
+    private static final String PREFIX = "partition-";
+    private static final String SUFFIX = ".snapshot";
+    private static final String MANIFEST = "snapshot.properties";
+    private static final int CHUNK_SIZE = 65536;
+
+    private final NamedCache namedCache;
+    private final ProcessorFactory<?, ?> processorFactory;
+    private final File directory;
+    private final File tempDirectory;
+    private final File oldDirectory;
+
+    /**
+     * @param namedCache       the cache
+     * @param processorFactory the factory of the cache
+     * @param baseDirectory    the directory holding the snapshots of all caches
+     */
+    CacheSnapshot(NamedCache namedCache, ProcessorFactory<?, ?> processorFactory, File baseDirectory) {
+        this.namedCache = namedCache;
+        this.processorFactory = processorFactory;
+        this.directory = new File(baseDirectory, namedCache.getCacheName());
+        this.tempDirectory = new File(baseDirectory, namedCache.getCacheName() + ".tmp");
+        this.oldDirectory = new File(baseDirectory, namedCache.getCacheName() + ".old");
+    }
+
+    /**
+     * Write a snapshot of the current contents, replacing the previous one
+     * only once it is complete.
+     */
+    void write() throws IOException {
+        deleteDirectory(tempDirectory);
+        if (!tempDirectory.mkdirs()) {
+            throw new IOException("Cannot create snapshot directory " + tempDirectory);
+        }
+        final Properties manifest = new Properties();
+        final int partitionCount = ((PartitionedService) namedCache.getCacheService()).getPartitionCount();
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(partitionCount);
+        for (int partition = 0; partition < partitionCount; partition++) {
+            final int partitionId = partition;
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() throws IOException {
+                    PartitionSet partitions = new PartitionSet(partitionCount);
+                    partitions.add(partitionId);
+                    Binary contents = (Binary) namedCache.aggregate(
+                        new PartitionedFilter(AlwaysFilter.INSTANCE, partitions),
+                        processorFactory.getSnapshotAggregator());
+                    if (contents != null && contents.getBufferInput().readInt() > 0) {
+                        String name = PREFIX + partitionId + SUFFIX;
+                        writeFile(new File(tempDirectory, name), contents);
+                        manifest.setProperty(name, String.valueOf(checksum(contents.toByteBuffer())));
+                    }
+                    return null;
+                }
+            });
+        }
+        runAll(tasks);
+        // written last, it marks the snapshot complete
+        writeManifest(new File(tempDirectory, MANIFEST), manifest);
+
+        deleteDirectory(oldDirectory);
+        if (directory.exists() && !directory.renameTo(oldDirectory)) {
+            throw new IOException("Cannot move old snapshot " + directory + " to " + oldDirectory);
+        }
+        if (!tempDirectory.renameTo(directory)) {
+            throw new IOException("Cannot move snapshot " + tempDirectory + " to " + directory);
+        }
+        deleteDirectory(oldDirectory);
+    }
+
+    /**
+     * Put the contents of the last complete snapshot, if any, back into the
+     * cache if it is empty.
+     *
+     * @return the number of entries in the snapshot restored, or 0 if the cache was not empty
+     * @throws IOException if a file of the snapshot is missing or does not match its checksum
+     */
+    int restore() throws IOException {
+        if (!namedCache.isEmpty()) {
+            return 0;
+        }
+        // a failure between the renames of write() leaves the previous snapshot as the old one
+        File source = new File(directory, MANIFEST).isFile() ? directory : oldDirectory;
+        File manifestFile = new File(source, MANIFEST);
+        if (!manifestFile.isFile()) {
+            return 0;
+        }
+        Properties manifest = readManifest(manifestFile);
+        final List<File> files = new ArrayList<File>();
+        List<Callable<Void>> checks = new ArrayList<Callable<Void>>();
+        for (final String name : manifest.stringPropertyNames()) {
+            final File file = new File(source, name);
+            final long expected = Long.parseLong(manifest.getProperty(name));
+            files.add(file);
+            checks.add(new Callable<Void>() {
+                @Override
+                public Void call() throws IOException {
+                    verifyFile(file, expected);
+                    return null;
+                }
+            });
+        }
+        // check every file before restoring any, so a damaged snapshot restores nothing
+        runAll(checks);
+
+        List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>(files.size());
+        for (final File file : files) {
+            tasks.add(new Callable<Integer>() {
+                @Override
+                public Integer call() throws IOException {
+                    Map<Binary, Binary> entries = readFile(file);
+                    putIfAbsent(entries);
+                    return entries.size();
+                }
+            });
+        }
+        int count = 0;
+        for (Integer restored : runAll(tasks)) {
+            count += restored;
+        }
+        return count;
+    }
+
+    /**
+     * Put the entries of a partition file that have no value in the cache.
+     */
+    private void putIfAbsent(Map<Binary, Binary> entries) {
+        Converter keyFromInternal = namedCache.getCacheService().getBackingMapManager().getContext()
+            .getKeyFromInternalConverter();
+        Set<Object> keys = new HashSet<Object>(entries.size() * 2);
+        for (Binary key : entries.keySet()) {
+            keys.add(keyFromInternal.convert(key));
+        }
+        namedCache.invokeAll(keys,
+            processorFactory.getNoResultProcessor(processorFactory.getBinaryPutIfAbsentProcessor(entries)));
+    }
+
+    private static void writeFile(File file, Binary contents) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, contents.length());
+            buffer.put(contents.toByteBuffer());
+            buffer.force();
+        } finally {
+            raf.close();
+        }
+    }
+
+    private static void verifyFile(File file, long expected) throws IOException {
+        if (!file.isFile()) {
+            throw new IOException("Snapshot file " + file + " is missing");
+        }
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+            if (checksum(buffer) != expected) {
+                throw new IOException("Snapshot file " + file + " does not match its checksum");
+            }
+        } finally {
+            raf.close();
+        }
+    }
+
+    private static Map<Binary, Binary> readFile(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+            int count = buffer.getInt();
+            Map<Binary, Binary> entries = new HashMap<Binary, Binary>(count * 2);
+            for (int i = 0; i < count; i++) {
+                Binary key = readBinary(buffer);
+                entries.put(key, readBinary(buffer));
+            }
+            return entries;
+        } finally {
+            raf.close();
+        }
+    }
+
+    private static Binary readBinary(ByteBuffer buffer) {
+        byte[] ab = new byte[buffer.getInt()];
+        buffer.get(ab);
+        return new Binary(ab);
+    }
+
+    private static long checksum(ByteBuffer buffer) {
+        ByteBuffer source = buffer.duplicate();
+        CRC32 crc = new CRC32();
+        byte[] chunk = new byte[Math.min(CHUNK_SIZE, Math.max(1, source.remaining()))];
+        while (source.hasRemaining()) {
+            int cb = Math.min(chunk.length, source.remaining());
+            source.get(chunk, 0, cb);
+            crc.update(chunk, 0, cb);
+        }
+        return crc.getValue();
+    }
+
+    private static void writeManifest(File file, Properties manifest) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            manifest.store(out, "partition files and their CRC32 checksums");
+            out.getFD().sync();
+        } finally {
+            out.close();
+        }
+    }
+
+    private static Properties readManifest(File file) throws IOException {
+        Properties manifest = new Properties();
+        FileInputStream in = new FileInputStream(file);
+        try {
+            manifest.load(in);
+        } finally {
+            in.close();
+        }
+        return manifest;
+    }
+
+    private static void deleteDirectory(File dir) throws IOException {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (!file.delete()) {
+                throw new IOException("Cannot delete " + file);
+            }
+        }
+        if (!dir.delete()) {
+            throw new IOException("Cannot delete " + dir);
+        }
+    }
+
+    private static <T> List<T> runAll(List<Callable<T>> tasks) throws IOException {
+        List<T> results = new ArrayList<T>(tasks.size());
+        if (tasks.isEmpty()) {
+            return results;
+        }
+        int threads = Math.min(tasks.size(), Runtime.getRuntime().availableProcessors() * 2);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (Future<T> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(String.valueOf(cause));
+        } finally {
+            executor.shutdown();
+        }
+        return results;
+    }
+}
@@ -20,21 +20,34 @@
  */
 package com.tangosol.coherence.jsr107;
 
-import com.tangosol.coherence.jsr107.processors.ConverterProcessor;
+import com.tangosol.coherence.jsr107.io.BinaryCodec;
+import com.tangosol.coherence.jsr107.io.RecordDecoder;
+import com.tangosol.coherence.jsr107.processors.LoaderOptions;
 import com.tangosol.coherence.jsr107.processors.ProcessorFactory;
 import com.tangosol.net.BackingMapManagerContext;
+import com.tangosol.net.CacheService;
 import com.tangosol.net.ConfigurableCacheFactory;
+import com.tangosol.net.Member;
 import com.tangosol.net.NamedCache;
 import com.tangosol.net.PartitionedService;
+import com.tangosol.net.partition.KeyAssociator;
 import com.tangosol.net.partition.KeyPartitioningStrategy;
+import com.tangosol.net.partition.PartitionSet;
 import com.tangosol.util.Binary;
 import com.tangosol.util.Converter;
 import com.tangosol.util.ExternalizableHelper;
+import com.tangosol.util.Filter;
 import com.tangosol.util.InvocableMap;
 import com.tangosol.util.LiteMap;
+import com.tangosol.util.ValueExtractor;
 import com.tangosol.util.WrapperException;
+import com.tangosol.util.filter.AlwaysFilter;
+import com.tangosol.util.filter.AndFilter;
+import com.tangosol.util.filter.InKeySetFilter;
+import com.tangosol.util.filter.PartitionedFilter;
 import org.jsr107.ri.AbstractCache;
 import org.jsr107.ri.DelegatingCacheMXBean;
+import org.reactivestreams.Publisher;
 
 import javax.cache.CacheConfiguration;
 import javax.cache.CacheException;
@@ -44,15 +57,32 @@ import javax.cache.CacheWriter;
 import javax.cache.Status;
 import javax.cache.event.CacheEntryListener;
 import javax.cache.mbeans.CacheMXBean;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * @author ycosmado
@@ -60,11 +90,40 @@ import java.util.concurrent.FutureTask;
  */
 public class CoherenceCache<K, V> extends AbstractCache<K, V> {
     private static final boolean TEMPORARY_YACHACK_TCK_FREEK = true;
+    private static final int DEFAULT_INGEST_BATCH_SIZE = 1000;
+    private static final Logger LOGGER = Logger.getLogger("javax.cache");
+
+    private static final ExecutorService STOP_EXECUTOR = Executors.newFixedThreadPool(
+        Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "CoherenceCache-stop-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
     private final NamedCache namedCache;
     private volatile Status status;
     private final CoherenceCacheStatistics statistics;
     private final CacheMXBean mBean;
     private final ProcessorFactory<K, V> processorFactory;
+    private final BinaryCodec valueCodec;
+    private final boolean byReference;
+    private final CacheSnapshot snapshot;
+    private final Iterable<? extends K> preloadKeys;
+    private final PreloadListener preloadListener;
+    private final FlowController flowController = new FlowController();
+    private volatile int averageValueBytes;
+    private final Converter valueDecoder = new Converter() {
+        @Override
+        public Object convert(Object o) {
+            return decode(o);
+        }
+    };
+    private final SingleFlight<K> singleFlight;
+    private final WriteCombiner<K, V> writeCombiner;
 
     private CoherenceCache(NamedCache namedCache,
                            String cacheName,
@@ -72,7 +131,10 @@ public class CoherenceCache<K, V> extends AbstractCache<K, V> {
                            ClassLoader classLoader,
                            CacheConfiguration<K, V> configuration,
                            CacheLoader<K, ? extends V> cacheLoader,
-                           CacheWriter<? super K, ? super V> cacheWriter) {
+                           CacheWriter<? super K, ? super V> cacheWriter,
+                           Iterable<? extends K> preloadKeys,
+                           PreloadListener preloadListener,
+                           ScheduledExecutorService combineScheduler) {
         super(cacheName,
             cacheManagerName,
             classLoader,
@@ -82,7 +144,28 @@ public class CoherenceCache<K, V> extends AbstractCache<K, V> {
         this.namedCache = namedCache;
         this.statistics = new CoherenceCacheStatistics(namedCache);
         mBean = new DelegatingCacheMXBean<K, V>(this);
-        this.processorFactory = new ProcessorFactory<K, V>(namedCache);
+        // only a local scheme keeps objects in this JVM; anything else has to store by value
+        this.byReference = !configuration.isStoreByValue() && isLocal(namedCache);
+        if (!configuration.isStoreByValue() && !byReference) {
+            LOGGER.log(Level.WARNING, "Cache " + cacheName + " is configured to store by reference, but its "
+                + namedCache.getCacheService().getInfo().getServiceType()
+                + " service is not local; storing by value");
+        }
+        this.valueCodec = byReference ? null : ((CoherenceCacheConfiguration) configuration).getValueCodec();
+        this.processorFactory = new ProcessorFactory<K, V>(namedCache, valueCodec, classLoader, byReference,
+            createLoaderOptions(namedCache.getCacheName(), configuration));
+        File snapshotDirectory = ((CoherenceCacheConfiguration) configuration).getSnapshotDirectory();
+        // snapshots are taken partition by partition
+        this.snapshot = snapshotDirectory == null || !(namedCache.getCacheService() instanceof PartitionedService) ?
+            null : new CacheSnapshot(namedCache, processorFactory, snapshotDirectory);
+        this.preloadKeys = preloadKeys;
+        this.preloadListener = preloadListener;
+        this.singleFlight = ((CoherenceCacheConfiguration) configuration).isCoalesceReads() ?
+            new SingleFlight<K>() : null;
+        long writeCombiningMillis = ((CoherenceCacheConfiguration) configuration).getWriteCombiningMillis();
+        this.writeCombiner = writeCombiningMillis > 0 && !byReference
+            && namedCache.getCacheService() instanceof PartitionedService ?
+            new WriteCombiner<K, V>(namedCache, processorFactory, writeCombiningMillis, combineScheduler) : null;
         status = Status.UNINITIALISED;
     }
 
@@ -94,7 +177,9 @@ public class CoherenceCache<K, V> extends AbstractCache<K, V> {
         }
         try {
             long statisticsStart = getStatisticsStartMillis();
-            V value = (V) fromBinary(invokeWithCacheLoader(key, processorFactory.getGetProcessor()));
+            V value = (V) fromBinary(singleFlight == null ?
+                invokeWithCacheLoader(key, processorFactory.getGetProcessor()) :
+                singleFlight.execute(key, new GetCallable(key)));
             if (statisticsStart != 0 && getConfiguration().isStatisticsEnabled()) {
                 if (value == null) {
                     statistics.registerMisses(1, statisticsStart);
@@ -123,7 +208,9 @@ public class CoherenceCache<K, V> extends AbstractCache<K, V> {
         }
         try {
             long statisticsStart = getStatisticsStartMillis();
-            Map<K, V> map = fromBinary(invokeWithCacheLoader(keys, processorFactory.getGetProcessor()));
+            Map<K, Binary> binaries = invokeWithCacheLoader(keys, processorFactory.getGetProcessor());
+            // values are decoded as the caller reads them
+            Map<K, V> map = byReference ? fromBinary(binaries) : new BinaryValueMap<K, V>(binaries, valueDecoder);
             if (statisticsStart != 0 && getConfiguration().isStatisticsEnabled()) {
                 int hits = map.size();
                 int misses = keys.size() - hits;
@@ -171,7 +258,7 @@ public class CoherenceCache<K, V> extends AbstractCache<K, V> {
         if (getCacheLoader() == null) {
             return null;
         }
-        FutureTask<V> task = new FutureTask<V>(new CoherenceCacheLoaderLoadCallable<K, V>(namedCache, getCacheLoader(), key));
+        FutureTask<V> task = new FutureTask<V>(new CoherenceCacheLoaderLoadCallable(getCacheLoader(), key));
         submit(task);
         return task;
     }
@@ -188,7 +275,7 @@ public class CoherenceCache<K, V> extends AbstractCache<K, V> {
         if (getCacheLoader() == null) {
             return null;
         }
-        Callable<Map<K, ? extends V>> callable = new CoherenceCacheLoaderLoadAllCallable<K, V>(namedCache, getCacheLoader(), keys);
+        Callable<Map<K, ? extends V>> callable = new CoherenceCacheLoaderLoadAllCallable(getCacheLoader(), keys);
         FutureTask<Map<K, ? extends V>> task = new FutureTask<Map<K, ? extends V>>(callable);
         submit(task);
         return task;
@@ -210,12 +297,58 @@ public class CoherenceCache<K, V> extends AbstractCache<K, V> {
             throw new NullPointerException();
         }
         try {
-            namedCache.invoke(key, processorFactory.getPutProcessor(value));
+            if (writeCombiner == null) {
+                namedCache.invoke(key, processorFactory.getPutProcessor(value));
+            } else {
+                awaitPut(writeCombiner.put(key, value));
+            }
         } catch (WrapperException e) {
             throw thunkException(e);
         }
     }
 
+    /**
+     * Put without waiting for the write to complete. Puts are combined with
+     * others to the same partition if the cache was built with write combining,
+     * otherwise the put is made before this method returns.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the future completing once the value is written
+     */
+    public Future<Void> putAsync(K key, V value) throws CacheException {
+        checkStatusStarted();
+        if (key == null) {
+            throw new NullPointerException();
+        }
+        if (value == null) {
+            throw new NullPointerException();
+        }
+        if (writeCombiner != null) {
+            return writeCombiner.put(key, value);
+        }
+        FutureTask<Void> task = new FutureTask<Void>(new PutCallable(key, value));
+        task.run();
+        return task;
+    }
+
+    private void awaitPut(Future<Void> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CacheException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CacheException(cause);
+        }
+    }
+
     @Override
     public V getAndPut(K key, V value) throws CacheException {
         checkStatusStarted();
@@ -245,57 +378,162 @@ public class CoherenceCache<K, V> extends AbstractCache<K, V> {
             throw new NullPointerException();
         }
         //namedCache.putAll(map);
-        putAllWithEntryProcessor(map);
+        putAllInternal(map);
     }
 
-    private void putAllWithEntryProcessor(Map<? extends K, ? extends V> map) {
-        BackingMapManagerContext context = namedCache.getCacheService().getBackingMapManager().getContext();
-        Converter keyToInternalConverter = context.getKeyToInternalConverter();
-        Converter valueToInternalConverter = context.getValueToInternalConverter();
-        Converter keyFromInternalConverter = context.getKeyFromInternalConverter();
+    private void putAllInternal(Map<? extends K, ? extends V> map) {
+        if (byReference) {
+            namedCache.putAll(map);
+        } else {
+            putAllWithEntryProcessor(map);
+        }
+    }
 
-        HashMap<Integer, Map<Binary, Binary>> partitioned = new HashMap<Integer, Map<Binary, Binary>>();
-        for (Map.Entry<? extends K,? extends V> entry : map.entrySet()) {
-            Binary bKey = (Binary) keyToInternalConverter.convert(entry.getKey());
-            Binary bValue = (Binary) valueToInternalConverter.convert(entry.getValue());
-            int partition = context.getKeyPartition(bKey);
-            Map<Binary, Binary> partitionMap = partitioned.get(partition);
-            if (partitionMap == null) {
-                partitionMap = new HashMap<Binary, Binary>();
-                partitioned.put(partition, partitionMap);
-            }
-            partitionMap.put(bKey, bValue);
+    /**
+     * Stream every record of a file into the cache, using a worker thread per processor.
+     *
+     * @param file    the file
+     * @param decoder the decoder of the file's records
+     * @return the number of entries loaded
+     */
+    public long ingest(File file, RecordDecoder<? extends K, ? extends V> decoder) throws CacheException {
+        if (file == null) {
+            throw new NullPointerException("file");
         }
-        for (Map.Entry<Integer, Map<Binary, Binary>> entry : partitioned.entrySet()) {
-            int partitionId = entry.getKey();
-            Object partitionKey = keyFromInternalConverter.convert(entry.getValue().keySet().iterator().next()); // any key will do
-            //TODO: I remember mention of some sort of "pseudo key" for a partition; if so how to get?
-            namedCache.invoke(partitionKey, processorFactory.getPutAllProcessor(entry.getValue()));
+        try {
+            FileInputStream in = new FileInputStream(file);
+            try {
+                return ingest(in.getChannel(), decoder, DEFAULT_INGEST_BATCH_SIZE,
+                    Runtime.getRuntime().availableProcessors());
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            throw new CacheException(e);
         }
     }
 
-    private void putAllWithEntryProcessor1(Map<? extends K, ? extends V> map) {
-        PartitionedService ps = (PartitionedService) namedCache.getCacheService();
-        KeyPartitioningStrategy keyPartitioningStrategy = ps.getKeyPartitioningStrategy();
+    /**
+     * Stream every record of a channel into the cache.
+     * <p/>
+     * Records are decoded on the calling thread and, for a partitioned cache,
+     * gathered by partition across the whole input, so each batch is written
+     * to a single partition with one invocation. Values are converted to
+     * Binary on the worker threads.
+     *
+     * @param channel   the channel, read to its end but not closed
+     * @param decoder   the decoder of the channel's records
+     * @param batchSize the number of entries per batch
+     * @param threads   the number of worker threads
+     * @return the number of entries loaded
+     */
+    public long ingest(ReadableByteChannel channel, RecordDecoder<? extends K, ? extends V> decoder,
+                       int batchSize, int threads) throws CacheException {
+        checkStatusStarted();
+        if (channel == null) {
+            throw new NullPointerException("channel");
+        }
+        if (decoder == null) {
+            throw new NullPointerException("decoder");
+        }
+        try {
+            return new BulkLoader<K, V>(this, batchSize, threads).load(channel, decoder);
+        } catch (IOException e) {
+            throw new CacheException(e);
+        } catch (WrapperException e) {
+            throw thunkException(e);
+        }
+    }
 
-        HashMap<Integer, Map<K, V>> partitioned = new HashMap<Integer, Map<K, V>>();
-        for (Map.Entry<? extends K,? extends V> entry : map.entrySet()) {
-            K key = entry.getKey();
-            V value = entry.getValue();
-            int partition = keyPartitioningStrategy.getKeyPartition(key);
-            Map<K, V> partitionMap = partitioned.get(partition);
-            if (partitionMap == null) {
-                partitionMap = new HashMap<K, V>();
-                partitioned.put(partition, partitionMap);
+    /**
+     * Put a batch of entries, converting them straight to their Binary form.
+     * <p/>
+     * On a partitioned cache each entry is set through an entry processor, so
+     * it is locked, backed up and observed as a single put would be, with one
+     * invocation per chunk of the keys a member owns.
+     *
+     * @param entries the entries
+     */
+    void putAllEntries(Collection<? extends Map.Entry<? extends K, ? extends V>> entries) {
+        if (byReference) {
+            Map<K, V> map = new HashMap<K, V>(entries.size() * 2);
+            for (Map.Entry<? extends K, ? extends V> entry : entries) {
+                map.put(checkNotNull(entry.getKey()), checkNotNull(entry.getValue()));
             }
-            partitionMap.put(key, value);
+            namedCache.putAll(map);
+            return;
         }
-        for (Map.Entry<Integer, Map<K, V>> entry : partitioned.entrySet()) {
-            int partitionId = entry.getKey();
-            Object partitionKey = entry.getValue().keySet().iterator().next(); // any key will do
-            //TODO: I remember mention of some sort of "pseudo key" for a partition; if so how to get?
-            namedCache.invoke(partitionKey, processorFactory.getPutAllProcessor1(entry.getValue()));
+        if (!(namedCache.getCacheService() instanceof PartitionedService)) {
+            Map<K, Binary> map = new HashMap<K, Binary>(entries.size() * 2);
+            for (Map.Entry<? extends K, ? extends V> entry : entries) {
+                map.put(checkNotNull(entry.getKey()), processorFactory.valueToBinary(checkNotNull(entry.getValue())));
+            }
+            namedCache.putAll(map);
+            return;
+        }
+        List<BinaryPut<K>> puts = new ArrayList<BinaryPut<K>>(entries.size());
+        for (Map.Entry<? extends K, ? extends V> entry : entries) {
+            K key = checkNotNull(entry.getKey());
+            puts.add(new BinaryPut<K>(key, processorFactory.keyToBinary(key),
+                processorFactory.valueToBinary(checkNotNull(entry.getValue()))));
+        }
+        final BackingMapManagerContext context = namedCache.getCacheService().getBackingMapManager().getContext();
+        final PartitionedService service = (PartitionedService) namedCache.getCacheService();
+        flowController.process(puts, new FlowController.Chunking<BinaryPut<K>>() {
+            @Override
+            public Member getOwner(BinaryPut<K> put) {
+                return service.getPartitionOwner(context.getKeyPartition(put.binaryKey));
+            }
+
+            @Override
+            public int getWeight(BinaryPut<K> put) {
+                return put.binaryKey.length() + put.binaryValue.length();
+            }
+
+            @Override
+            public void process(List<BinaryPut<K>> chunk) {
+                Set<K> keys = new HashSet<K>(chunk.size() * 2);
+                Map<Binary, Binary> values = new HashMap<Binary, Binary>(chunk.size() * 2);
+                for (BinaryPut<K> put : chunk) {
+                    keys.add(put.key);
+                    values.put(put.binaryKey, put.binaryValue);
+                }
+                namedCache.invokeAll(keys,
+                    processorFactory.getNoResultProcessor(processorFactory.getBinaryPutProcessor(values)));
+            }
+        });
+    }
+
+    /**
+     * Whether the cache belongs to a partitioned service.
+     */
+    boolean isPartitioned() {
+        return namedCache.getCacheService() instanceof PartitionedService;
+    }
+
+    /**
+     * Convert a key to its Binary form.
+     */
+    Binary toBinaryKey(K key) {
+        return processorFactory.keyToBinary(checkNotNull(key));
+    }
+
+    /**
+     * The partition of a key of a partitioned cache.
+     */
+    int getKeyPartition(Binary binaryKey) {
+        return namedCache.getCacheService().getBackingMapManager().getContext().getKeyPartition(binaryKey);
+    }
+
+    private static <T> T checkNotNull(T o) {
+        if (o == null) {
+            throw new NullPointerException();
         }
+        return o;
+    }
+
+    private void putAllWithEntryProcessor(Map<? extends K, ? extends V> map) {
+        putAllEntries(map.entrySet());
     }
 
     @Override
@@ -417,7 +655,7 @@ public class CoherenceCache<K, V> extends AbstractCache<K, V> {
             throw new NullPointerException();
         }
         try {
-            namedCache.invokeAll(keys, processorFactory.getRemoveProcessor());
+            invokeAllChunked(keys, processorFactory.getNoResultProcessor(processorFactory.getRemoveProcessor()), false);
         } catch (WrapperException e) {
             throw thunkException(e);
         }
@@ -426,7 +664,24 @@ public class CoherenceCache<K, V> extends AbstractCache<K, V> {
     @Override
     public void removeAll() throws CacheException {
         checkStatusStarted();
-        namedCache.clear();
+        try {
+            truncate();
+        } catch (WrapperException e) {
+            throw thunkException(e);
+        }
+    }
+
+    /**
+     * Remove every entry. On a partitioned cache every storage member removes
+     * its entries in a single pass and returns nothing, rather than the
+     * caller clearing the cache key by key.
+     */
+    private void truncate() {
+        if (namedCache.getCacheService() instanceof PartitionedService) {
+            namedCache.invokeAll(AlwaysFilter.INSTANCE, processorFactory.getTruncateProcessor());
+        } else {
+            namedCache.clear();
+        }
     }
 
     @Override
@@ -455,7 +710,94 @@ public class CoherenceCache<K, V> extends AbstractCache<K, V> {
             throw new NullPointerException();
         }
         try {
-            return namedCache.invoke(key, new ConverterProcessor(entryProcessor));
+            return namedCache.invoke(key, processorFactory.getConverterProcessor(entryProcessor));
+        } catch (WrapperException e) {
+            throw thunkException(e);
+        }
+    }
+
+    /**
+     * Invoke a processor against the entry of a key and the entries of other
+     * keys in the same partition, such as keys associated with it. The
+     * processor runs once, on the storage member owning the partition, and
+     * its updates to all of the entries are committed atomically.
+     *
+     * @param key            the key to invoke against
+     * @param associatedKeys the other keys whose entries the processor sees
+     * @param entryProcessor the processor
+     * @return the result of the processor
+     * @throws IllegalArgumentException if a key is not in the partition of the key invoked against
+     * @throws UnsupportedOperationException if the cache is not partitioned
+     */
+    public Object invokeEntryProcessor(K key, Set<? extends K> associatedKeys,
+                                       MultiEntryProcessor<K, V> entryProcessor) throws CacheException {
+        checkStatusStarted();
+        if (key == null || associatedKeys == null || entryProcessor == null) {
+            throw new NullPointerException();
+        }
+        if (associatedKeys.contains(null)) {
+            throw new NullPointerException();
+        }
+        if (!(namedCache.getCacheService() instanceof PartitionedService)) {
+            throw new UnsupportedOperationException("Multi-entry processors require a partitioned cache");
+        }
+        KeyPartitioningStrategy strategy =
+            ((PartitionedService) namedCache.getCacheService()).getKeyPartitioningStrategy();
+        int partition = strategy.getKeyPartition(key);
+        for (K associatedKey : associatedKeys) {
+            if (strategy.getKeyPartition(associatedKey) != partition) {
+                throw new IllegalArgumentException("Key " + associatedKey + " is not in the partition of " + key);
+            }
+        }
+        try {
+            return namedCache.invoke(key,
+                processorFactory.getMultiEntryProcessor(new HashSet<K>(associatedKeys), entryProcessor));
+        } catch (WrapperException e) {
+            throw thunkException(e);
+        }
+    }
+
+    /**
+     * Invoke an entry processor against each of the keys, the entries being
+     * processed on the storage members in parallel.
+     *
+     * @param keys           the keys
+     * @param entryProcessor the processor
+     * @return the result of the processor for each key
+     */
+    public Map<K, Object> invokeEntryProcessorAll(Set<? extends K> keys, EntryProcessor<K, V> entryProcessor) {
+        return invokeEntryProcessorAll(keys, entryProcessor, true);
+    }
+
+    /**
+     * Invoke an entry processor against each of the keys, the entries being
+     * processed on the storage members in parallel.
+     * <p/>
+     * Without results the storage members discard what the processor returns
+     * and answer with an empty map, so nothing is sent back per key.
+     *
+     * @param keys           the keys
+     * @param entryProcessor the processor
+     * @param returnResults  false to discard the results on the storage members
+     * @return the result of the processor for each key, or an empty map
+     */
+    public Map<K, Object> invokeEntryProcessorAll(Set<? extends K> keys, EntryProcessor<K, V> entryProcessor,
+                                                  boolean returnResults) {
+        checkStatusStarted();
+        if (keys == null) {
+            throw new NullPointerException();
+        }
+        if (keys.contains(null)) {
+            throw new NullPointerException();
+        }
+        if (entryProcessor == null) {
+            throw new NullPointerException();
+        }
+        InvocableMap.EntryProcessor processor = processorFactory.getConverterProcessor(entryProcessor);
+        try {
+            return returnResults ?
+                (Map<K, Object>) namedCache.invokeAll(keys, processor) :
+                (Map<K, Object>) namedCache.invokeAll(keys, processorFactory.getNoResultProcessor(processor));
         } catch (WrapperException e) {
             throw thunkException(e);
         }
@@ -474,21 +816,277 @@ public class CoherenceCache<K, V> extends AbstractCache<K, V> {
         if (cls.isAssignableFrom(NamedCache.class)) {
             return cls.cast(namedCache);
         }
+        if (cls.isAssignableFrom(CachePublishers.class)) {
+            return cls.cast(new CachePublishers<K, V>(this));
+        }
+        if (cls.isAssignableFrom(CacheAggregators.class)) {
+            return cls.cast(new CacheAggregators<K, V>(this));
+        }
         throw new IllegalArgumentException();
     }
 
+    /**
+     * Write a snapshot of the cache's contents to the configured snapshot directory.
+     *
+     * @throws IllegalStateException if the cache has no snapshot directory
+     */
+    public void snapshot() throws CacheException {
+        checkStatusStarted();
+        if (snapshot == null) {
+            throw new IllegalStateException("The cache has no snapshot directory");
+        }
+        writeSnapshot();
+    }
+
+    /**
+     * The extractor to build filters and indexes for this cache with, in place
+     * of the given one. Values written by a value codec are decoded before
+     * extraction, so filters built with the returned extractor evaluate against
+     * the values as they were put and use the indexes added with
+     * {@link #addIndex}.
+     *
+     * @param extractor an extractor of the cache's values
+     * @return the extractor to use with this cache
+     */
+    public ValueExtractor getExtractor(ValueExtractor extractor) {
+        if (extractor == null) {
+            throw new NullPointerException();
+        }
+        return processorFactory.getValueExtractor(extractor);
+    }
+
+    /**
+     * Return the keys of the entries matching a filter. The filter is
+     * evaluated in parallel by the storage members, using their indexes.
+     *
+     * @param filter the filter
+     * @return the keys of the matching entries
+     */
+    public Set<K> keySet(Filter filter) throws CacheException {
+        checkStatusStarted();
+        if (filter == null) {
+            throw new NullPointerException();
+        }
+        try {
+            return namedCache.keySet(queryFilter(filter));
+        } catch (WrapperException e) {
+            throw thunkException(e);
+        }
+    }
+
+    /**
+     * Return the entries matching a filter. The filter is evaluated in
+     * parallel by the storage members, using their indexes.
+     *
+     * @param filter the filter
+     * @return the matching entries
+     */
+    public Set<Map.Entry<K, V>> entrySet(Filter filter) throws CacheException {
+        checkStatusStarted();
+        if (filter == null) {
+            throw new NullPointerException();
+        }
+        try {
+            if (valueCodec == null || byReference) {
+                return namedCache.entrySet(queryFilter(filter));
+            }
+            // the service cannot deserialize values written by the codec, so fetch them as Binary
+            Map<K, Binary> binaries = namedCache.invokeAll(queryFilter(filter), processorFactory.getGetProcessor());
+            return new BinaryValueMap<K, V>(binaries, valueDecoder).entrySet();
+        } catch (WrapperException e) {
+            throw thunkException(e);
+        }
+    }
+
+    /**
+     * Return a page of the entries matching a filter, ordered by an extracted
+     * value. Each storage member selects the first offset + limit of its own
+     * matching entries, and only their keys and extracted values cross the
+     * network to be merged; the values are then fetched for the keys of the
+     * page alone. Entries removed in between are left out of the page. Entries
+     * with equal extracted values are in no particular order.
+     *
+     * @param filter     the filter
+     * @param orderBy    the extractor of the value to order by, as for {@link #getExtractor}
+     * @param comparator the order of the extracted values, or null for their natural order;
+     *                   it must be serializable
+     * @param offset     the number of leading entries to skip
+     * @param limit      the greatest number of entries to return
+     * @return the entries of the page, in order
+     */
+    public List<Map.Entry<K, V>> entryPage(Filter filter, ValueExtractor orderBy, Comparator comparator,
+                                           int offset, int limit) throws CacheException {
+        checkStatusStarted();
+        if (filter == null || orderBy == null) {
+            throw new NullPointerException();
+        }
+        if (offset < 0 || limit <= 0) {
+            throw new IllegalArgumentException("offset must not be negative and limit must be positive");
+        }
+        if ((long) offset + limit > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("offset + limit must not exceed " + Integer.MAX_VALUE);
+        }
+        try {
+            List<K> keys = (List<K>) namedCache.aggregate(queryFilter(filter),
+                processorFactory.getTopNAggregator(orderBy, comparator, offset, limit));
+            if (keys.isEmpty()) {
+                return new ArrayList<Map.Entry<K, V>>();
+            }
+            Map<K, Binary> values = (Map<K, Binary>) namedCache.invokeAll(keys, processorFactory.getGetProcessor());
+            List<Map.Entry<K, V>> page = new ArrayList<Map.Entry<K, V>>(keys.size());
+            for (K key : keys) {
+                Binary value = values.get(key);
+                if (value != null) {
+                    page.add(new AbstractMap.SimpleImmutableEntry<K, V>(key, (V) decode(value)));
+                }
+            }
+            return page;
+        } catch (WrapperException e) {
+            throw thunkException(e);
+        }
+    }
+
+    /**
+     * Aggregate the entries matching a filter on the storage members. Parallel
+     * aggregators, such as those of {@link CacheAggregators}, run on each member
+     * against its own entries, so only the partial results cross the network.
+     *
+     * @param filter     the filter
+     * @param aggregator the aggregator
+     * @return the result of the aggregation
+     */
+    public Object aggregate(Filter filter, InvocableMap.EntryAggregator aggregator) throws CacheException {
+        checkStatusStarted();
+        if (filter == null || aggregator == null) {
+            throw new NullPointerException();
+        }
+        try {
+            return namedCache.aggregate(queryFilter(filter), aggregator);
+        } catch (WrapperException e) {
+            throw thunkException(e);
+        }
+    }
+
+    /**
+     * Aggregate the entries of the given keys on the storage members, as
+     * {@link #aggregate(Filter, InvocableMap.EntryAggregator)}. Keys without
+     * a value are left out.
+     *
+     * @param keys       the keys
+     * @param aggregator the aggregator
+     * @return the result of the aggregation
+     */
+    public Object aggregate(Set<? extends K> keys, InvocableMap.EntryAggregator aggregator) throws CacheException {
+        checkStatusStarted();
+        if (keys == null || aggregator == null) {
+            throw new NullPointerException();
+        }
+        if (keys.contains(null)) {
+            throw new NullPointerException();
+        }
+        try {
+            return namedCache.aggregate(new InKeySetFilter(processorFactory.getPresentFilter(), keys), aggregator);
+        } catch (WrapperException e) {
+            throw thunkException(e);
+        }
+    }
+
+    /**
+     * Add an index on the values extracted by an extractor.
+     *
+     * @param extractor  the extractor, as for {@link #getExtractor}
+     * @param ordered    whether the index is sorted, for range queries
+     * @param comparator the order of a sorted index, or null for the natural order
+     */
+    public void addIndex(ValueExtractor extractor, boolean ordered, Comparator comparator) throws CacheException {
+        checkStatusStarted();
+        try {
+            namedCache.addIndex(getExtractor(extractor), ordered, comparator);
+        } catch (WrapperException e) {
+            throw thunkException(e);
+        }
+    }
+
+    /**
+     * Remove an index added with {@link #addIndex}.
+     *
+     * @param extractor the extractor the index was added with
+     */
+    public void removeIndex(ValueExtractor extractor) throws CacheException {
+        checkStatusStarted();
+        try {
+            namedCache.removeIndex(getExtractor(extractor));
+        } catch (WrapperException e) {
+            throw thunkException(e);
+        }
+    }
+
     @Override
     public void start() throws CacheException {
+        try {
+            if (snapshot != null) {
+                snapshot.restore();
+            }
+            if (preloadKeys != null) {
+                new CachePreloader<K, V>(namedCache, processorFactory, getCacheLoader(),
+                    preloadKeys, preloadListener).preload();
+            }
+        } catch (IOException e) {
+            throw new CacheException(e);
+        } catch (WrapperException e) {
+            throw thunkException(e);
+        }
         status = Status.STARTED;
     }
 
     @Override
     public void stop() throws CacheException {
+        boolean started = Status.STARTED.equals(status);
+        super.stop();
+        status = Status.STOPPED;
+        release(started);
+    }
+
+    /**
+     * Stop the cache, writing its snapshot if it has one and removing its
+     * entries on a background thread, shared by all caches.
+     * <p/>
+     * The cache is STOPPED when this method returns.
+     *
+     * @return the future completing once the entries have been removed
+     */
+    public Future<Void> stopAsync() {
+        final boolean started = Status.STARTED.equals(status);
         super.stop();
-        namedCache.clear();
+        status = Status.STOPPED;
+        return STOP_EXECUTOR.submit(new Callable<Void>() {
+            @Override
+            public Void call() {
+                release(started);
+                return null;
+            }
+        });
+    }
+
+    private void release(boolean started) {
+        if (writeCombiner != null) {
+            try {
+                writeCombiner.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CacheException(e);
+            }
+        }
+        if (snapshot != null && started) {
+            writeSnapshot();
+        }
+        try {
+            truncate();
+        } catch (WrapperException e) {
+            throw thunkException(e);
+        }
         //TODO: this causes problem
         //namedCache.release();
-        status = Status.STOPPED;
     }
 
     @Override
@@ -499,7 +1097,18 @@ public class CoherenceCache<K, V> extends AbstractCache<K, V> {
     @Override
     public Iterator<Entry<K, V>> iterator() {
         checkStatusStarted();
-        return new EntryIterator<K, V>(namedCache.entrySet().iterator());
+        if (valueCodec == null || byReference) {
+            // leave out the negative markers, which are not values of the cache
+            boolean negativeCaching = ((CoherenceCacheConfiguration) getConfiguration()).getNegativeCachingMillis() > 0;
+            Set<Map.Entry<K, V>> entries = negativeCaching ?
+                namedCache.entrySet(processorFactory.getPresentFilter()) :
+                namedCache.entrySet();
+            return new EntryIterator<K, V>(entries.iterator());
+        }
+        // the service cannot deserialize values written by the codec, so fetch them as Binary
+        Map<K, Binary> binaryEntries = (Map<K, Binary>) namedCache.invokeAll(queryFilter(AlwaysFilter.INSTANCE),
+            processorFactory.getGetProcessor());
+        return new BinaryEntryIterator(binaryEntries.entrySet().iterator());
     }
 
     @Override
@@ -507,6 +1116,111 @@ public class CoherenceCache<K, V> extends AbstractCache<K, V> {
         return mBean;
     }
 
+    /**
+     * Publish the values of the given keys, reading through the cache loader,
+     * one partition at a time.
+     *
+     * @param keys the keys
+     * @return a publisher of the entries found
+     */
+    Publisher<Entry<K, V>> publishAll(Set<? extends K> keys) {
+        checkStatusStarted();
+        if (keys == null) {
+            throw new NullPointerException();
+        }
+        if (keys.contains(null)) {
+            throw new NullPointerException();
+        }
+        CacheLoader<K, ? extends V> cacheLoader = getCacheLoader();
+        final InvocableMap.EntryProcessor processor = cacheLoader == null ?
+            processorFactory.getGetProcessor() :
+            processorFactory.getCacheLoaderProcessor(processorFactory.getGetProcessor(), cacheLoader);
+        Collection<Collection<K>> groups;
+        if (namedCache.getCacheService() instanceof PartitionedService) {
+            KeyPartitioningStrategy strategy =
+                ((PartitionedService) namedCache.getCacheService()).getKeyPartitioningStrategy();
+            Map<Integer, Collection<K>> partitions = new HashMap<Integer, Collection<K>>();
+            for (K key : keys) {
+                Integer partition = strategy.getKeyPartition(key);
+                Collection<K> group = partitions.get(partition);
+                if (group == null) {
+                    group = new ArrayList<K>();
+                    partitions.put(partition, group);
+                }
+                group.add(key);
+            }
+            groups = partitions.values();
+        } else {
+            groups = Collections.<Collection<K>>singleton(new ArrayList<K>(keys));
+        }
+        List<Callable<Map<K, Object>>> fetches = new ArrayList<Callable<Map<K, Object>>>(groups.size());
+        for (final Collection<K> group : groups) {
+            fetches.add(new Callable<Map<K, Object>>() {
+                @Override
+                public Map<K, Object> call() {
+                    return namedCache.invokeAll(group, processor);
+                }
+            });
+        }
+        return new PartitionedPublisher<K, V>(fetches, valueDecoder);
+    }
+
+    /**
+     * Publish the entries matching a filter one partition at a time.
+     *
+     * @param filter the filter
+     * @return a publisher of the matching entries
+     */
+    Publisher<Entry<K, V>> publishEntries(Filter filter) {
+        checkStatusStarted();
+        if (filter == null) {
+            throw new NullPointerException();
+        }
+        final InvocableMap.EntryProcessor processor = processorFactory.getGetProcessor();
+        final Filter query = queryFilter(filter);
+        List<Callable<Map<K, Object>>> fetches = new ArrayList<Callable<Map<K, Object>>>();
+        if (namedCache.getCacheService() instanceof PartitionedService) {
+            int partitionCount = ((PartitionedService) namedCache.getCacheService()).getPartitionCount();
+            for (int i = 0; i < partitionCount; i++) {
+                PartitionSet partitions = new PartitionSet(partitionCount);
+                partitions.add(i);
+                final Filter partitionFilter = new PartitionedFilter(query, partitions);
+                fetches.add(new Callable<Map<K, Object>>() {
+                    @Override
+                    public Map<K, Object> call() {
+                        return namedCache.invokeAll(partitionFilter, processor);
+                    }
+                });
+            }
+        } else {
+            fetches.add(new Callable<Map<K, Object>>() {
+                @Override
+                public Map<K, Object> call() {
+                    return namedCache.invokeAll(query, processor);
+                }
+            });
+        }
+        return new PartitionedPublisher<K, V>(fetches, valueDecoder);
+    }
+
+    private Filter queryFilter(Filter filter) {
+        // leave out the negative markers, which are not values of the cache; the
+        // cheap marker check goes first so the filter is not applied to them
+        return ((CoherenceCacheConfiguration) getConfiguration()).getNegativeCachingMillis() > 0 ?
+            new AndFilter(processorFactory.getPresentFilter(), filter) :
+            filter;
+    }
+
+    private void writeSnapshot() {
+        try {
+            snapshot.write();
+        } catch (IOException e) {
+            throw new CacheException(e);
+        } catch (WrapperException e) {
+            throw thunkException(e);
+        }
+    }
+
     private void checkStatusStarted() {
         if (!Status.STARTED.equals(status)) {
             throw new IllegalStateException("The cache status is not STARTED");
@@ -535,16 +1249,88 @@ public class CoherenceCache<K, V> extends AbstractCache<K, V> {
     private Map<K, Binary> invokeWithCacheLoader(Collection<? extends K> keys, InvocableMap.EntryProcessor processor) {
         CacheLoader<K, ? extends V> cacheLoader = getCacheLoader();
         Object ret = cacheLoader == null ?
-            namedCache.invokeAll(keys, processor) :
-            namedCache.invokeAll(keys, processorFactory.getCacheLoaderProcessor(processor, cacheLoader));
+            invokeAllChunked(keys, processor, true) :
+            invokeAllChunked(keys, processorFactory.getCacheLoaderProcessor(processor, cacheLoader), true);
         return (Map<K, Binary>) ret;
     }
 
+    /**
+     * Invoke a processor against the keys of a partitioned cache in chunks
+     * sized and paced by the flow controller.
+     * <p/>
+     * Each key is converted to Binary once, with {@link ProcessorFactory#keyToBinary},
+     * to find its owner and weigh it. NamedCache.invokeAll only takes the keys
+     * themselves, so it converts them again for the invocation.
+     *
+     * @param keys           the keys
+     * @param processor      the processor
+     * @param collectResults false if the processor's results are not wanted
+     * @return the results, or null if not collected
+     */
+    private Map invokeAllChunked(Collection<? extends K> keys, final InvocableMap.EntryProcessor processor,
+                                 final boolean collectResults) {
+        if (!(namedCache.getCacheService() instanceof PartitionedService)) {
+            Map results = namedCache.invokeAll(keys, processor);
+            return collectResults ? results : null;
+        }
+        if (keys.isEmpty()) {
+            return collectResults ? new HashMap() : null;
+        }
+        final PartitionedService service = (PartitionedService) namedCache.getCacheService();
+        final BackingMapManagerContext context = service.getBackingMapManager().getContext();
+        final Map results = collectResults ? Collections.synchronizedMap(new HashMap()) : null;
+        List<Map.Entry<K, Binary>> binaryKeys = new ArrayList<Map.Entry<K, Binary>>(keys.size());
+        for (K key : keys) {
+            binaryKeys.add(new AbstractMap.SimpleImmutableEntry<K, Binary>(key, processorFactory.keyToBinary(key)));
+        }
+        // the values of a read are as much a part of the chunk as the keys
+        final int valueBytes = collectResults ? averageValueBytes : 0;
+        flowController.process(binaryKeys, new FlowController.Chunking<Map.Entry<K, Binary>>() {
+            @Override
+            public Member getOwner(Map.Entry<K, Binary> binaryKey) {
+                return service.getPartitionOwner(context.getKeyPartition(binaryKey.getValue()));
+            }
+
+            @Override
+            public int getWeight(Map.Entry<K, Binary> binaryKey) {
+                return binaryKey.getValue().length() + valueBytes;
+            }
+
+            @Override
+            public void process(List<Map.Entry<K, Binary>> chunk) {
+                List<K> chunkKeys = new ArrayList<K>(chunk.size());
+                for (Map.Entry<K, Binary> binaryKey : chunk) {
+                    chunkKeys.add(binaryKey.getKey());
+                }
+                Map chunkResults = namedCache.invokeAll(chunkKeys, processor);
+                if (results != null) {
+                    recordValueBytes(chunkResults);
+                    results.putAll(chunkResults);
+                }
+            }
+        });
+        return results;
+    }
+
+    private void recordValueBytes(Map<?, ?> chunkResults) {
+        long bytes = 0;
+        int count = 0;
+        for (Object value : chunkResults.values()) {
+            if (value instanceof Binary) {
+                bytes += ((Binary) value).length();
+                count++;
+            }
+        }
+        if (count > 0) {
+            averageValueBytes = (int) (bytes / count);
+        }
+    }
+
     private Object fromBinary(Object o) {
         if (o == null) {
             return null;
         } else {
-            return ExternalizableHelper.fromBinary((Binary) o, getClassLoader());
+            return decode(o);
         }
     }
 
@@ -567,16 +1353,38 @@ public class CoherenceCache<K, V> extends AbstractCache<K, V> {
         if (binaryResult == null) {
             return null;
         }
-        ClassLoader classLoader = getClassLoader();
         LiteMap result = new LiteMap();
         for (Map.Entry<K, Binary> entry : binaryResult.entrySet()) {
             K key = (K) entry.getKey();
-            V value = (V) ExternalizableHelper.fromBinary(entry.getValue(), classLoader);
+            V value = (V) decode(entry.getValue());
             result.put(key, value);
         }
         return result;
     }
 
+    private Object decode(Object internal) {
+        if (byReference) {
+            return internal;
+        }
+        return valueCodec == null ?
+            ExternalizableHelper.fromBinary((Binary) internal, getClassLoader()) :
+            valueCodec.fromBinary((Binary) internal, getClassLoader());
+    }
+
+    private static LoaderOptions createLoaderOptions(String cacheName, CacheConfiguration<?, ?> configuration) {
+        CacheConfiguration.Duration ttl = configuration.getExpiry(CacheConfiguration.ExpiryType.MODIFIED);
+        long ttlMillis = ttl == null ? 0 : ttl.getTimeUnit().toMillis(ttl.getDurationAmount());
+        CoherenceCacheConfiguration coherenceConfiguration = (CoherenceCacheConfiguration) configuration;
+        return new LoaderOptions(cacheName, ttlMillis,
+            (long) (ttlMillis * coherenceConfiguration.getRefreshAheadFactor()),
+            coherenceConfiguration.getNegativeCachingMillis(),
+            coherenceConfiguration.getLoaderLimits());
+    }
+
+    private static boolean isLocal(NamedCache namedCache) {
+        return CacheService.TYPE_LOCAL.equals(namedCache.getCacheService().getInfo().getServiceType());
+    }
+
     public static class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
         private final Iterator<Map.Entry<K, V>> mapIterator;
 
@@ -610,31 +1418,106 @@ public class CoherenceCache<K, V> extends AbstractCache<K, V> {
         }
     }
 
-    static class Builder<K, V> extends AbstractCache.Builder<K, V> {
+    /**
+     * Iterates over entries fetched as Binary values, decoding each value as it is reached.
+     */
+    private class BinaryEntryIterator implements Iterator<Entry<K, V>> {
+        private final Iterator<Map.Entry<K, Binary>> mapIterator;
+        private K lastKey;
+
+        BinaryEntryIterator(Iterator<Map.Entry<K, Binary>> iterator) {
+            this.mapIterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return mapIterator.hasNext();
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            final Map.Entry<K, Binary> mapEntry = mapIterator.next();
+            lastKey = mapEntry.getKey();
+            return new Entry<K, V>() {
+                @Override
+                public K getKey() {
+                    return mapEntry.getKey();
+                }
+                @Override
+                public V getValue() {
+                    return (V) decode(mapEntry.getValue());
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == null) {
+                throw new IllegalStateException();
+            }
+            namedCache.invoke(lastKey, processorFactory.getRemoveProcessor());
+            lastKey = null;
+        }
+    }
+
+    static class Builder<K, V> extends AbstractCache.Builder<K, V> implements CoherenceCacheBuilder<K, V> {
         private final ConfigurableCacheFactory ccf;
+        private final ScheduledExecutorService combineScheduler;
+        private final CoherenceCacheConfiguration.Builder coherenceConfigurationBuilder;
+        private Iterable<? extends K> preloadKeys;
+        private PreloadListener preloadListener;
 
+        /**
+         * @param cacheName        the name of the cache
+         * @param cacheManagerName the name of the cache manager
+         * @param classLoader      the class loader
+         * @param ccf              the factory of the named cache
+         * @param combineScheduler the scheduler of the write combining flushes, shared by the manager's caches
+         */
         public Builder(String cacheName, String cacheManagerName,
-                       ClassLoader classLoader, ConfigurableCacheFactory ccf) {
-            this(cacheName, cacheManagerName, classLoader, new CoherenceCacheConfiguration.Builder(), ccf);
+                       ClassLoader classLoader, ConfigurableCacheFactory ccf,
+                       ScheduledExecutorService combineScheduler) {
+            this(cacheName, cacheManagerName, classLoader, new CoherenceCacheConfiguration.Builder(), ccf,
+                combineScheduler);
         }
 
         private Builder(String cacheName, String cacheManagerName,
                         ClassLoader classLoader,
                         CoherenceCacheConfiguration.Builder configurationBuilder,
-                        ConfigurableCacheFactory ccf) {
+                        ConfigurableCacheFactory ccf,
+                        ScheduledExecutorService combineScheduler) {
             super(cacheName, cacheManagerName, classLoader, configurationBuilder);
             if (ccf == null) {
                 throw new NullPointerException("ConfigurableCacheFactory");
             }
+            if (combineScheduler == null) {
+                throw new NullPointerException("combineScheduler");
+            }
             this.ccf = ccf;
+            this.combineScheduler = combineScheduler;
+            this.coherenceConfigurationBuilder = configurationBuilder;
         }
 
         @Override
         public CoherenceCache<K, V> build() {
-            CacheConfiguration configuration = createCacheConfiguration();
+            CoherenceCacheConfiguration configuration = (CoherenceCacheConfiguration) createCacheConfiguration();
+            // validate everything before the shared factory configuration is changed
+            if (preloadKeys != null && cacheLoader == null) {
+                throw new IllegalStateException("Preloading requires a cache loader");
+            }
+            if (configuration.getKeyAssociator() != null) {
+                BackingMapSchemes.checkAssociation(ccf, cacheName, configuration.getBackingMapType());
+            }
+            if (configuration.getBackingMapType() != CoherenceCacheConfiguration.BackingMapType.CONFIGURED) {
+                BackingMapSchemes.ensureMapping(ccf, cacheName,
+                    configuration.getBackingMapType(), configuration.getBackingMapMaxBytes());
+            }
+            if (configuration.getKeyAssociator() != null) {
+                BackingMapSchemes.ensureAssociation(ccf, cacheName, configuration.getKeyAssociator());
+            }
             NamedCache namedCache = ccf.ensureCache(cacheName, classLoader);
             return new CoherenceCache<K, V>(namedCache, cacheName, cacheManagerName, classLoader,
-                    configuration, cacheLoader, cacheWriter);
+                    configuration, cacheLoader, cacheWriter, preloadKeys, preloadListener, combineScheduler);
         }
 
         /**
@@ -656,15 +1539,128 @@ public class CoherenceCache<K, V> extends AbstractCache<K, V> {
         public Builder<K, V> registerCacheEntryListener(CacheEntryListener<K, V> listener) {
             throw new UnsupportedOperationException();
         }
+
+        @Override
+        public Builder<K, V> setValueCodec(BinaryCodec valueCodec) {
+            coherenceConfigurationBuilder.setValueCodec(valueCodec);
+            return this;
+        }
+
+        @Override
+        public Builder<K, V> setBackingMap(CoherenceCacheConfiguration.BackingMapType backingMapType, long maxBytes) {
+            coherenceConfigurationBuilder.setBackingMap(backingMapType, maxBytes);
+            return this;
+        }
+
+        @Override
+        public Builder<K, V> setSnapshotDirectory(File snapshotDirectory) {
+            coherenceConfigurationBuilder.setSnapshotDirectory(snapshotDirectory);
+            return this;
+        }
+
+        @Override
+        public Builder<K, V> setCoalesceReads(boolean coalesceReads) {
+            coherenceConfigurationBuilder.setCoalesceReads(coalesceReads);
+            return this;
+        }
+
+        @Override
+        public Builder<K, V> setWriteCombining(long windowMillis) {
+            coherenceConfigurationBuilder.setWriteCombining(windowMillis);
+            return this;
+        }
+
+        @Override
+        public Builder<K, V> setRefreshAhead(double factor) {
+            coherenceConfigurationBuilder.setRefreshAhead(factor);
+            return this;
+        }
+
+        @Override
+        public Builder<K, V> setNegativeCaching(long ttlMillis) {
+            coherenceConfigurationBuilder.setNegativeCaching(ttlMillis);
+            return this;
+        }
+
+        @Override
+        public Builder<K, V> setLoaderLimits(LoaderLimits loaderLimits) {
+            coherenceConfigurationBuilder.setLoaderLimits(loaderLimits);
+            return this;
+        }
+
+        @Override
+        public Builder<K, V> setKeyAssociator(Class<? extends KeyAssociator> keyAssociator) {
+            if (keyAssociator == null) {
+                throw new NullPointerException("keyAssociator");
+            }
+            coherenceConfigurationBuilder.setKeyAssociator(keyAssociator);
+            return this;
+        }
+
+        @Override
+        public Builder<K, V> setPreload(Iterable<? extends K> keySource, PreloadListener listener) {
+            if (keySource == null) {
+                throw new NullPointerException("keySource");
+            }
+            this.preloadKeys = keySource;
+            this.preloadListener = listener;
+            return this;
+        }
+    }
+
+    /**
+     * A key with its Binary form and the Binary form of its value.
+     */
+    private static class BinaryPut<K> {
+        private final K key;
+        private final Binary binaryKey;
+        private final Binary binaryValue;
+
+        BinaryPut(K key, Binary binaryKey, Binary binaryValue) {
+            this.key = key;
+            this.binaryKey = binaryKey;
+            this.binaryValue = binaryValue;
+        }
+    }
+
+    private class PutCallable implements Callable<Void> {
+        private final K key;
+        private final V value;
+
+        PutCallable(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public Void call() {
+            try {
+                namedCache.invoke(key, processorFactory.getPutProcessor(value));
+            } catch (WrapperException e) {
+                throw thunkException(e);
+            }
+            return null;
+        }
+    }
+
+    private class GetCallable implements Callable<Object> {
+        private final K key;
+
+        GetCallable(K key) {
+            this.key = key;
+        }
+
+        @Override
+        public Object call() {
+            return invokeWithCacheLoader(key, processorFactory.getGetProcessor());
+        }
     }
 
-    private static class CoherenceCacheLoaderLoadCallable<K, V> implements Callable<V> {
-        private final NamedCache cache;
+    private class CoherenceCacheLoaderLoadCallable implements Callable<V> {
         private final CacheLoader<K, ? extends V> cacheLoader;
         private final K key;
 
-        public CoherenceCacheLoaderLoadCallable(NamedCache cache, CacheLoader<K, ? extends V> cacheLoader, K key) {
-            this.cache = cache;
+        public CoherenceCacheLoaderLoadCallable(CacheLoader<K, ? extends V> cacheLoader, K key) {
             this.cacheLoader = cacheLoader;
             this.key = key;
         }
@@ -675,27 +1671,27 @@ public class CoherenceCache<K, V> extends AbstractCache<K, V> {
             if (entry.getValue() == null) {
                 throw new NullPointerException();
             }
-            cache.put(entry.getKey(), entry.getValue());
+            namedCache.invoke(entry.getKey(), processorFactory.getPutProcessor(entry.getValue()));
             return entry.getValue();
         }
     }
 
-    private static class CoherenceCacheLoaderLoadAllCallable<K, V> implements Callable<Map<K, ? extends V>> {
-        private final NamedCache cache;
+    private class CoherenceCacheLoaderLoadAllCallable implements Callable<Map<K, ? extends V>> {
         private final CacheLoader<K, ? extends V> cacheLoader;
         private final Collection<? extends K> keys;
 
-        CoherenceCacheLoaderLoadAllCallable(NamedCache cache, CacheLoader<K, ? extends V> cacheLoader, Collection<? extends K> keys) {
-            this.cache = cache;
+        CoherenceCacheLoaderLoadAllCallable(CacheLoader<K, ? extends V> cacheLoader, Collection<? extends K> keys) {
             this.cacheLoader = cacheLoader;
             this.keys = keys;
         }
 
         @Override
         public Map<K, ? extends V> call() throws Exception {
+            // a negative marker is not a value, its key is loaded again
+            Map<K, Boolean> present = namedCache.invokeAll(keys, processorFactory.getContainsKeyProcessor());
             ArrayList<K> keysNotInStore = new ArrayList<K>();
             for (K key : keys) {
-                if (!cache.containsKey(key)) {
+                if (!present.containsKey(key)) {
                     keysNotInStore.add(key);
                 }
             }
@@ -703,7 +1699,7 @@ public class CoherenceCache<K, V> extends AbstractCache<K, V> {
             if (value.containsValue(null)) {
                 throw new NullPointerException();
             }
-            cache.putAll(value);
+            putAllInternal(value);
             return value;
         }
     }
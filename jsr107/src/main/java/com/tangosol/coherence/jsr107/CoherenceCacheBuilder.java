@@ -0,0 +1,158 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107;
+
+import com.tangosol.coherence.jsr107.io.BinaryCodec;
+import com.tangosol.net.partition.KeyAssociator;
+
+import javax.cache.CacheBuilder;
+import java.io.File;
+
+/**
+ * The Coherence specific options of a cache builder.
+ * <p/>
+ * Builders returned by the Coherence cache manager implement this interface:
+ * <pre>
+ *   CoherenceCacheBuilder&lt;K, V&gt; builder = (CoherenceCacheBuilder&lt;K, V&gt;) cacheManager.&lt;K, V&gt;createCacheBuilder(name);
+ * </pre>
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public interface CoherenceCacheBuilder<K, V> extends CacheBuilder<K, V> {
+
+    /**
+     * Set the codec used to convert values to and from their stored Binary form.
+     * When not set the cache service's own serializer is used.
+     *
+     * @param valueCodec the codec
+     * @return the builder
+     */
+    CoherenceCacheBuilder<K, V> setValueCodec(BinaryCodec valueCodec);
+
+    /**
+     * Set where the storage members keep the cache's Binary values, to move
+     * them off-heap. Takes effect when the cache is first created in the cluster.
+     * <p/>
+     * {@link CoherenceCacheConfiguration.BackingMapType#JOURNAL} is the supported
+     * way to hold large caches off-heap. {@link CoherenceCacheConfiguration.BackingMapType#OFF_HEAP}
+     * keeps each member's values in a single NIO buffer of at most 2GB, so
+     * it suits small caches only; a JVM holding tens of gigabytes of a cache
+     * needs the journal.
+     *
+     * @param backingMapType the backing map type
+     * @param maxBytes       the size limit on each storage member in bytes, or 0 for the scheme's default
+     * @return the builder
+     * @throws IllegalArgumentException if maxBytes exceeds the type's
+     *         {@link CoherenceCacheConfiguration.BackingMapType#getMaxBytesLimit() limit}
+     */
+    CoherenceCacheBuilder<K, V> setBackingMap(CoherenceCacheConfiguration.BackingMapType backingMapType, long maxBytes);
+
+    /**
+     * Set the directory the cache's contents are snapshotted to, one memory-mapped
+     * file per partition, when the cache is stopped. A snapshot found there is
+     * restored before the cache is started, if the cache is empty in the cluster.
+     *
+     * @param snapshotDirectory the directory
+     * @return the builder
+     */
+    CoherenceCacheBuilder<K, V> setSnapshotDirectory(File snapshotDirectory);
+
+    /**
+     * Warm the cache before it is started by loading every key of the source
+     * with the cache loader. The storage members owning the keys call
+     * {@link javax.cache.CacheLoader#loadAll} in parallel, a partition's batch
+     * of keys at a time. Requires a cache loader.
+     *
+     * @param keySource the keys to load
+     * @param listener  the listener told of the progress, or null
+     * @return the builder
+     */
+    CoherenceCacheBuilder<K, V> setPreload(Iterable<? extends K> keySource, PreloadListener listener);
+
+    /**
+     * Set whether concurrent gets of the same key share a single remote call
+     * and its result. A get that joins a call already in flight may miss a
+     * put made after that call started.
+     *
+     * @param coalesceReads true to coalesce reads
+     * @return the builder
+     */
+    CoherenceCacheBuilder<K, V> setCoalesceReads(boolean coalesceReads);
+
+    /**
+     * Buffer puts for a short window and write those to the same partition
+     * with a single invocation. {@link CoherenceCache#put} still returns once
+     * its batch is written; {@link CoherenceCache#putAsync} returns at once.
+     * Only partitioned caches storing by value combine puts.
+     *
+     * @param windowMillis the window in milliseconds, or 0 to not combine puts
+     * @return the builder
+     */
+    CoherenceCacheBuilder<K, V> setWriteCombining(long windowMillis);
+
+    /**
+     * Reload entries of a read-through cache in the background when they are
+     * read within the given fraction of their time to live, returning the
+     * current value meanwhile. Requires a cache loader and a modified expiry.
+     *
+     * @param factor the fraction of the time to live, from 0 to not refresh ahead up to 1
+     * @return the builder
+     */
+    CoherenceCacheBuilder<K, V> setRefreshAhead(double factor);
+
+    /**
+     * Remember keys the cache loader could not load with a marker that expires
+     * after the given time, so reads of the key do not call the loader until
+     * then. Reads and conditional writes treat the marker as absent.
+     *
+     * @param ttlMillis the time to live of the marker in milliseconds, or 0 to not remember misses
+     * @return the builder
+     */
+    CoherenceCacheBuilder<K, V> setNegativeCaching(long ttlMillis);
+
+    /**
+     * Limit the concurrency and rate of the cache loader calls each storage
+     * member makes for the cache, so that a slow backing store holds on to a
+     * bounded number of service worker threads.
+     *
+     * @param loaderLimits the limits
+     * @return the builder
+     */
+    CoherenceCacheBuilder<K, V> setLoaderLimits(LoaderLimits loaderLimits);
+
+    /**
+     * Co-locate related entries by mapping the cache to a partitioned service
+     * that places each key in the partition of its associated key, as given
+     * by the associator. Keys implementing
+     * {@link com.tangosol.net.cache.KeyAssociation} are co-located without
+     * one.
+     * <p/>
+     * The service is derived from the scheme the cache would otherwise be
+     * mapped to, and must be partitioned. Storage members that never build
+     * the cache through the adapter need the same scheme in their cache
+     * configuration.
+     *
+     * @param keyAssociator the associator class, with a public no-argument constructor
+     * @return the builder
+     */
+    CoherenceCacheBuilder<K, V> setKeyAssociator(Class<? extends KeyAssociator> keyAssociator);
+}
@@ -20,24 +20,144 @@
  */
 package com.tangosol.coherence.jsr107;
 
+import com.tangosol.coherence.jsr107.io.BinaryCodec;
+import com.tangosol.net.partition.KeyAssociator;
+import com.tangosol.util.Base;
 import org.jsr107.ri.AbstractCacheConfiguration;
 
 import javax.cache.CacheLoader;
 import javax.cache.CacheWriter;
 import javax.cache.transaction.IsolationLevel;
 import javax.cache.transaction.Mode;
+import java.io.File;
 
 /**
  * @author ycosmado
  * @since 1.0
  */
 public class CoherenceCacheConfiguration<K, V> extends AbstractCacheConfiguration {
+    private final BinaryCodec valueCodec;
+    private final BackingMapType backingMapType;
+    private final long backingMapMaxBytes;
+    private final File snapshotDirectory;
+    private final boolean coalesceReads;
+    private final long writeCombiningMillis;
+    private final double refreshAheadFactor;
+    private final long negativeCachingMillis;
+    private final LoaderLimits loaderLimits;
+    private final Class<? extends KeyAssociator> keyAssociator;
 
     private CoherenceCacheConfiguration(boolean readThrough, boolean writeThrough,
                                         boolean storeByValue, boolean statisticsEnabled,
                                         IsolationLevel isolationLevel, Mode transactionMode,
-                                        Duration[] timeToLive) {
+                                        Duration[] timeToLive,
+                                        BinaryCodec valueCodec,
+                                        BackingMapType backingMapType, long backingMapMaxBytes,
+                                        File snapshotDirectory, boolean coalesceReads,
+                                        long writeCombiningMillis, double refreshAheadFactor,
+                                        long negativeCachingMillis, LoaderLimits loaderLimits,
+                                        Class<? extends KeyAssociator> keyAssociator) {
         super(readThrough, writeThrough, storeByValue, statisticsEnabled, isolationLevel, transactionMode, timeToLive);
+        this.valueCodec = valueCodec;
+        this.backingMapType = backingMapType;
+        this.backingMapMaxBytes = backingMapMaxBytes;
+        this.snapshotDirectory = snapshotDirectory;
+        this.coalesceReads = coalesceReads;
+        this.writeCombiningMillis = writeCombiningMillis;
+        this.refreshAheadFactor = refreshAheadFactor;
+        this.negativeCachingMillis = negativeCachingMillis;
+        this.loaderLimits = loaderLimits;
+        this.keyAssociator = keyAssociator;
+    }
+
+    /**
+     * The codec converting values to and from their stored Binary form.
+     *
+     * @return the codec, or null if the cache service's serializer is used
+     */
+    public BinaryCodec getValueCodec() {
+        return valueCodec;
+    }
+
+    /**
+     * Where the storage members keep the cache's Binary values.
+     *
+     * @return the backing map type
+     */
+    public BackingMapType getBackingMapType() {
+        return backingMapType;
+    }
+
+    /**
+     * The size limit of the backing map on each storage member.
+     *
+     * @return the limit in bytes, or 0 for the scheme's default
+     */
+    public long getBackingMapMaxBytes() {
+        return backingMapMaxBytes;
+    }
+
+    /**
+     * The directory the cache is snapshotted to when stopped and restored from when started.
+     *
+     * @return the directory, or null if the cache is not snapshotted
+     */
+    public File getSnapshotDirectory() {
+        return snapshotDirectory;
+    }
+
+    /**
+     * Whether concurrent gets of the same key share a single remote call.
+     *
+     * @return true if reads are coalesced
+     */
+    public boolean isCoalesceReads() {
+        return coalesceReads;
+    }
+
+    /**
+     * How long puts are buffered to be combined into one invocation per partition.
+     *
+     * @return the window in milliseconds, or 0 if puts are not combined
+     */
+    public long getWriteCombiningMillis() {
+        return writeCombiningMillis;
+    }
+
+    /**
+     * The fraction of its time to live within which a read entry is reloaded in the background.
+     *
+     * @return the fraction, or 0 if entries are not refreshed ahead
+     */
+    public double getRefreshAheadFactor() {
+        return refreshAheadFactor;
+    }
+
+    /**
+     * How long a key the cache loader could not load is remembered as absent.
+     *
+     * @return the time in milliseconds, or 0 if misses are not remembered
+     */
+    public long getNegativeCachingMillis() {
+        return negativeCachingMillis;
+    }
+
+    /**
+     * The limits on the cache loader calls of each storage member.
+     *
+     * @return the limits, or null if loader calls are not limited
+     */
+    public LoaderLimits getLoaderLimits() {
+        return loaderLimits;
+    }
+
+    /**
+     * The key associator of the partitioned service the cache is mapped to.
+     *
+     * @return the associator class, or null to keep the configured service
+     */
+    public Class<? extends KeyAssociator> getKeyAssociator() {
+        return keyAssociator;
     }
 
     @Override
@@ -52,12 +172,86 @@ public class CoherenceCacheConfiguration<K, V> extends AbstractCacheConfiguratio
 
     @Override
     public boolean equals(Object o) {
-        return super.equals(o);
+        if (!super.equals(o)) {
+            return false;
+        }
+        CoherenceCacheConfiguration that = (CoherenceCacheConfiguration) o;
+        return Base.equals(valueCodec, that.valueCodec)
+            && backingMapType == that.backingMapType
+            && backingMapMaxBytes == that.backingMapMaxBytes
+            && Base.equals(snapshotDirectory, that.snapshotDirectory)
+            && coalesceReads == that.coalesceReads
+            && writeCombiningMillis == that.writeCombiningMillis
+            && Double.compare(refreshAheadFactor, that.refreshAheadFactor) == 0
+            && negativeCachingMillis == that.negativeCachingMillis
+            && Base.equals(loaderLimits, that.loaderLimits)
+            && Base.equals(keyAssociator, that.keyAssociator);
     }
 
     @Override
     public int hashCode() {
-        return super.hashCode();
+        int result = super.hashCode();
+        result = 31 * result + Base.hashCode(valueCodec);
+        result = 31 * result + backingMapType.hashCode();
+        result = 31 * result + (int) (backingMapMaxBytes ^ (backingMapMaxBytes >>> 32));
+        result = 31 * result + Base.hashCode(snapshotDirectory);
+        result = 31 * result + (coalesceReads ? 1 : 0);
+        result = 31 * result + (int) (writeCombiningMillis ^ (writeCombiningMillis >>> 32));
+        long refreshAheadBits = Double.doubleToLongBits(refreshAheadFactor);
+        result = 31 * result + (int) (refreshAheadBits ^ (refreshAheadBits >>> 32));
+        result = 31 * result + (int) (negativeCachingMillis ^ (negativeCachingMillis >>> 32));
+        result = 31 * result + Base.hashCode(loaderLimits);
+        result = 31 * result + Base.hashCode(keyAssociator);
+        return result;
+    }
+
+    /**
+     * Where the storage members keep a cache's Binary values.
+     */
+    public enum BackingMapType {
+        /**
+         * Whatever the cache configuration maps the cache to, on-heap by default.
+         */
+        CONFIGURED(null, 0),
+
+        /**
+         * Off-heap, in direct ByteBuffers managed by an NIO memory manager.
+         * A single buffer is limited to 2GB per storage member; use
+         * {@link #JOURNAL} for larger caches.
+         */
+        OFF_HEAP("jsr107-off-heap", Integer.MAX_VALUE),
+
+        /**
+         * Off-heap, in the direct buffers of an Elastic Data RAM journal. The
+         * supported type for large caches, with no per-member size limit of its own.
+         */
+        JOURNAL("jsr107-journal", Long.MAX_VALUE);
+
+        private final String schemeName;
+        private final long maxBytesLimit;
+
+        private BackingMapType(String schemeName, long maxBytesLimit) {
+            this.schemeName = schemeName;
+            this.maxBytesLimit = maxBytesLimit;
+        }
+
+        /**
+         * The caching scheme from coherence-jsr107-cache-config.xml backing this type.
+         *
+         * @return the scheme name, or null for {@link #CONFIGURED}
+         */
+        public String getSchemeName() {
+            return schemeName;
+        }
+
+        /**
+         * The greatest size limit that can be set for this type on each storage member.
+         *
+         * @return the limit in bytes, or 0 if no limit can be set
+         */
+        public long getMaxBytesLimit() {
+            return maxBytesLimit;
+        }
     }
 
     /**
@@ -65,6 +259,137 @@ public class CoherenceCacheConfiguration<K, V> extends AbstractCacheConfiguratio
      * @author Yannis Cosmadopoulos
      */
     public static class Builder extends AbstractCacheConfiguration.Builder {
+        private BinaryCodec valueCodec;
+        private BackingMapType backingMapType = BackingMapType.CONFIGURED;
+        private long backingMapMaxBytes;
+        private File snapshotDirectory;
+        private boolean coalesceReads;
+        private long writeCombiningMillis;
+        private double refreshAheadFactor;
+        private long negativeCachingMillis;
+        private LoaderLimits loaderLimits;
+        private Class<? extends KeyAssociator> keyAssociator;
+
+        /**
+         * Set the codec converting values to and from their stored Binary form.
+         *
+         * @param valueCodec the codec, or null to use the cache service's serializer
+         * @return the builder
+         */
+        public Builder setValueCodec(BinaryCodec valueCodec) {
+            this.valueCodec = valueCodec;
+            return this;
+        }
+
+        /**
+         * Set where the storage members keep the cache's Binary values.
+         *
+         * @param backingMapType the backing map type
+         * @param maxBytes       the size limit on each storage member in bytes, or 0 for the scheme's default
+         * @return the builder
+         * @throws IllegalArgumentException if maxBytes exceeds {@link BackingMapType#getMaxBytesLimit()}
+         */
+        public Builder setBackingMap(BackingMapType backingMapType, long maxBytes) {
+            if (backingMapType == null) {
+                throw new NullPointerException("backingMapType");
+            }
+            if (maxBytes < 0) {
+                throw new IllegalArgumentException("maxBytes");
+            }
+            if (maxBytes > backingMapType.getMaxBytesLimit()) {
+                throw new IllegalArgumentException("maxBytes " + maxBytes + " exceeds the limit of "
+                    + backingMapType.getMaxBytesLimit() + " bytes for " + backingMapType);
+            }
+            this.backingMapType = backingMapType;
+            this.backingMapMaxBytes = maxBytes;
+            return this;
+        }
+
+        /**
+         * Set the directory the cache is snapshotted to when stopped and restored from when started.
+         *
+         * @param snapshotDirectory the directory, or null to not snapshot the cache
+         * @return the builder
+         */
+        public Builder setSnapshotDirectory(File snapshotDirectory) {
+            this.snapshotDirectory = snapshotDirectory;
+            return this;
+        }
+
+        /**
+         * Set whether concurrent gets of the same key share a single remote call.
+         *
+         * @param coalesceReads true to coalesce reads
+         * @return the builder
+         */
+        public Builder setCoalesceReads(boolean coalesceReads) {
+            this.coalesceReads = coalesceReads;
+            return this;
+        }
+
+        /**
+         * Set how long puts are buffered to be combined into one invocation per partition.
+         *
+         * @param windowMillis the window in milliseconds, or 0 to not combine puts
+         * @return the builder
+         */
+        public Builder setWriteCombining(long windowMillis) {
+            if (windowMillis < 0) {
+                throw new IllegalArgumentException("windowMillis");
+            }
+            this.writeCombiningMillis = windowMillis;
+            return this;
+        }
+
+        /**
+         * Set the fraction of its time to live within which a read entry is reloaded in the background.
+         *
+         * @param factor the fraction, from 0 to not refresh ahead up to 1
+         * @return the builder
+         */
+        public Builder setRefreshAhead(double factor) {
+            if (factor < 0 || factor > 1) {
+                throw new IllegalArgumentException("factor");
+            }
+            this.refreshAheadFactor = factor;
+            return this;
+        }
+
+        /**
+         * Set how long a key the cache loader could not load is remembered as absent.
+         *
+         * @param ttlMillis the time in milliseconds, or 0 to not remember misses
+         * @return the builder
+         */
+        public Builder setNegativeCaching(long ttlMillis) {
+            if (ttlMillis < 0) {
+                throw new IllegalArgumentException("ttlMillis");
+            }
+            this.negativeCachingMillis = ttlMillis;
+            return this;
+        }
+
+        /**
+         * Set the limits on the cache loader calls of each storage member.
+         *
+         * @param loaderLimits the limits, or null to not limit loader calls
+         * @return the builder
+         */
+        public Builder setLoaderLimits(LoaderLimits loaderLimits) {
+            this.loaderLimits = loaderLimits;
+            return this;
+        }
+
+        /**
+         * Set the key associator of the partitioned service the cache is mapped to.
+         *
+         * @param keyAssociator the associator class, or null to keep the configured service
+         * @return the builder
+         */
+        public Builder setKeyAssociator(Class<? extends KeyAssociator> keyAssociator) {
+            this.keyAssociator = keyAssociator;
+            return this;
+        }
 
         /**
          * Create a new CoherenceCacheConfiguration instance.
@@ -75,7 +400,13 @@ public class CoherenceCacheConfiguration<K, V> extends AbstractCacheConfiguratio
             return new CoherenceCacheConfiguration(readThrough, writeThrough,
                 storeByValue, statisticsEnabled,
                 isolationLevel, transactionMode,
-                timeToLive);
+                timeToLive,
+                valueCodec,
+                backingMapType, backingMapMaxBytes,
+                snapshotDirectory, coalesceReads,
+                writeCombiningMillis, refreshAheadFactor,
+                negativeCachingMillis, loaderLimits,
+                keyAssociator);
         }
     }
 }
@@ -20,8 +20,10 @@
  */
 package com.tangosol.coherence.jsr107;
 
+import com.tangosol.coherence.jsr107.io.BinaryCodec;
 import com.tangosol.net.ConfigurableCacheFactory;
 import com.tangosol.net.DefaultConfigurableCacheFactory;
+import com.tangosol.net.partition.KeyAssociator;
 import org.jsr107.ri.AbstractCacheManager;
 import org.jsr107.ri.DelegatingCacheBuilder;
 
@@ -32,10 +34,19 @@ import javax.cache.CacheManager;
 import javax.cache.Caching;
 import javax.cache.OptionalFeature;
 import javax.cache.Status;
-import java.util.ArrayList;
+import java.io.File;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -46,8 +57,10 @@ import java.util.logging.Logger;
 class CoherenceCacheManager extends AbstractCacheManager implements CacheManager {
     private static final Logger LOGGER = Logger.getLogger("javax.cache");
     private final HashMap<String, Cache<?, ?>> caches = new HashMap<String, Cache<?, ?>>();
+    private final HashMap<String, Future<?>> stopping = new HashMap<String, Future<?>>();
     private volatile Status status;
     private final ConfigurableCacheFactory dccf;
+    private final ScheduledExecutorService combineScheduler;
 
     CoherenceCacheManager(ClassLoader classLoader, String name) {
         super(name, classLoader);
@@ -59,6 +72,19 @@ class CoherenceCacheManager extends AbstractCacheManager implements CacheManager
             throw new NullPointerException("No name specified");
         }
         dccf = new DefaultConfigurableCacheFactory();
+        // the write combining flushes of all the caches
+        final String threadName = "CoherenceCache-combine-" + name + "-";
+        combineScheduler = new ScheduledThreadPoolExecutor(Runtime.getRuntime().availableProcessors(),
+            new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, threadName + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
         status = Status.STARTED;
     }
 
@@ -69,7 +95,7 @@ class CoherenceCacheManager extends AbstractCacheManager implements CacheManager
 
     @Override
     public <K, V> CacheBuilder<K, V> createCacheBuilder(String cacheName) {
-        return new CoherenceCacheBuilder<K, V>(cacheName);
+        return new ManagedCacheBuilder<K, V>(cacheName);
     }
 
     @Override
@@ -104,11 +130,11 @@ class CoherenceCacheManager extends AbstractCacheManager implements CacheManager
         Cache oldCache;
         synchronized (caches) {
             oldCache = caches.remove(cacheName);
+            if (oldCache != null) {
+                // the entries are removed in the background, a new cache of the same name waits for them
+                stopping.put(cacheName, stopAsync(oldCache));
+            }
         }
-        if (oldCache != null) {
-            oldCache.stop();
-        }
-
         return oldCache != null;
     }
 
@@ -128,18 +154,25 @@ class CoherenceCacheManager extends AbstractCacheManager implements CacheManager
             throw new IllegalStateException();
         }
         super.shutdown();
-        ArrayList<Cache<?, ?>> cacheList;
+        HashMap<String, Future<?>> futures;
         synchronized (caches) {
-            cacheList = new ArrayList<Cache<?, ?>>(caches.values());
+            futures = new HashMap<String, Future<?>>(stopping);
+            for (Cache<?, ?> cache : caches.values()) {
+                futures.put(cache.getName(), stopAsync(cache));
+            }
             caches.clear();
+            stopping.clear();
         }
-        for (Cache<?, ?> cache : cacheList) {
+        // the caches are stopped in parallel
+        for (Map.Entry<String, Future<?>> entry : futures.entrySet()) {
             try {
-                cache.stop();
+                entry.getValue().get();
             } catch (Exception e) {
-                LOGGER.log(Level.WARNING, "Error stopping cache: " + cache);
+                LOGGER.log(Level.WARNING, "Error stopping cache: " + entry.getKey());
             }
         }
+        // the stopped caches have flushed their batches; a put racing the shutdown is rejected
+        combineScheduler.shutdown();
         status = Status.STOPPED;
     }
 
@@ -153,18 +186,61 @@ class CoherenceCacheManager extends AbstractCacheManager implements CacheManager
 
     private void addCacheInternal(Cache<?, ?> cache) throws CacheException {
         Cache oldCache;
+        Future<?> pendingStop;
         synchronized (caches) {
             oldCache = caches.put(cache.getName(), cache);
+            pendingStop = stopping.remove(cache.getName());
         }
-        cache.start();
+        if (pendingStop != null) {
+            try {
+                pendingStop.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CacheException(e);
+            } catch (ExecutionException e) {
+                LOGGER.log(Level.WARNING, "Error stopping cache: " + cache.getName(), e.getCause());
+            }
+        }
+        // stop the old cache first, it clears the named cache the new one is about to fill
         if (oldCache != null) {
             oldCache.stop();
         }
+        cache.start();
+    }
+
+    private static Future<?> stopAsync(Cache<?, ?> cache) {
+        if (cache instanceof CoherenceCache) {
+            return ((CoherenceCache<?, ?>) cache).stopAsync();
+        }
+        FutureTask<Void> task = new FutureTask<Void>(new StopCallable(cache));
+        task.run();
+        return task;
+    }
+
+    private static class StopCallable implements Callable<Void> {
+        private final Cache<?, ?> cache;
+
+        StopCallable(Cache<?, ?> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public Void call() {
+            cache.stop();
+            return null;
+        }
     }
 
-    private class CoherenceCacheBuilder<K, V> extends DelegatingCacheBuilder<K, V> {
-        public CoherenceCacheBuilder(String cacheName) {
-            super(new CoherenceCache.Builder<K, V>(cacheName, getName(), getClassLoader(), dccf));
+    private class ManagedCacheBuilder<K, V> extends DelegatingCacheBuilder<K, V> implements CoherenceCacheBuilder<K, V> {
+        private final CoherenceCache.Builder<K, V> builder;
+
+        public ManagedCacheBuilder(String cacheName) {
+            this(new CoherenceCache.Builder<K, V>(cacheName, getName(), getClassLoader(), dccf, combineScheduler));
+        }
+
+        private ManagedCacheBuilder(CoherenceCache.Builder<K, V> builder) {
+            super(builder);
+            this.builder = builder;
         }
 
         @Override
@@ -173,5 +249,66 @@ class CoherenceCacheManager extends AbstractCacheManager implements CacheManager
             addCacheInternal(cache);
             return cache;
         }
+
+        @Override
+        public CoherenceCacheBuilder<K, V> setValueCodec(BinaryCodec valueCodec) {
+            builder.setValueCodec(valueCodec);
+            return this;
+        }
+
+        @Override
+        public CoherenceCacheBuilder<K, V> setBackingMap(CoherenceCacheConfiguration.BackingMapType backingMapType,
+                                                      long maxBytes) {
+            builder.setBackingMap(backingMapType, maxBytes);
+            return this;
+        }
+
+        @Override
+        public CoherenceCacheBuilder<K, V> setSnapshotDirectory(File snapshotDirectory) {
+            builder.setSnapshotDirectory(snapshotDirectory);
+            return this;
+        }
+
+        @Override
+        public CoherenceCacheBuilder<K, V> setPreload(Iterable<? extends K> keySource, PreloadListener listener) {
+            builder.setPreload(keySource, listener);
+            return this;
+        }
+
+        @Override
+        public CoherenceCacheBuilder<K, V> setCoalesceReads(boolean coalesceReads) {
+            builder.setCoalesceReads(coalesceReads);
+            return this;
+        }
+
+        @Override
+        public CoherenceCacheBuilder<K, V> setWriteCombining(long windowMillis) {
+            builder.setWriteCombining(windowMillis);
+            return this;
+        }
+
+        @Override
+        public CoherenceCacheBuilder<K, V> setRefreshAhead(double factor) {
+            builder.setRefreshAhead(factor);
+            return this;
+        }
+
+        @Override
+        public CoherenceCacheBuilder<K, V> setNegativeCaching(long ttlMillis) {
+            builder.setNegativeCaching(ttlMillis);
+            return this;
+        }
+
+        @Override
+        public CoherenceCacheBuilder<K, V> setLoaderLimits(LoaderLimits loaderLimits) {
+            builder.setLoaderLimits(loaderLimits);
+            return this;
+        }
+
+        @Override
+        public CoherenceCacheBuilder<K, V> setKeyAssociator(Class<? extends KeyAssociator> keyAssociator) {
+            builder.setKeyAssociator(keyAssociator);
+            return this;
+        }
     }
 }
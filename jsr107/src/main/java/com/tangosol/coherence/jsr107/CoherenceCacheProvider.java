@@ -37,6 +37,7 @@ public class CoherenceCacheProvider implements CachingProvider {
 
     @Override
     public boolean isSupported(OptionalFeature optionalFeature) {
-        return false;
+        // honoured by caches mapped to a local scheme; other caches log a warning and store by value
+        return optionalFeature == OptionalFeature.STORE_BY_REFERENCE;
     }
 }
@@ -20,6 +20,7 @@
  */
 package com.tangosol.coherence.jsr107;
 
+import com.tangosol.net.BackingMapManager;
 import com.tangosol.net.DefaultConfigurableCacheFactory;
 import com.tangosol.net.NamedCache;
 import com.tangosol.net.cache.LocalCache;
@@ -27,6 +28,7 @@ import com.tangosol.net.cache.SimpleCacheStatistics;
 
 import javax.cache.CacheStatistics;
 import java.util.Date;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -40,12 +42,22 @@ public class CoherenceCacheStatistics implements CacheStatistics {
     private final AtomicLong  removeMillis = new AtomicLong();
 
     CoherenceCacheStatistics(NamedCache namedCache) {
-        DefaultConfigurableCacheFactory.Manager backingMapManager = (DefaultConfigurableCacheFactory.Manager) namedCache.getCacheService().getBackingMapManager();
-        LocalCache backingMap = (LocalCache) backingMapManager.getBackingMap(namedCache.getCacheName());
-        statistics = (SimpleCacheStatistics) backingMap.getCacheStatistics();
+        statistics = getBackingMapStatistics(namedCache);
         statistics.resetHitStatistics();
     }
 
+    private static SimpleCacheStatistics getBackingMapStatistics(NamedCache namedCache) {
+        BackingMapManager manager = namedCache.getCacheService().getBackingMapManager();
+        if (manager instanceof DefaultConfigurableCacheFactory.Manager) {
+            Map backingMap = ((DefaultConfigurableCacheFactory.Manager) manager).getBackingMap(namedCache.getCacheName());
+            if (backingMap instanceof LocalCache) {
+                return (SimpleCacheStatistics) ((LocalCache) backingMap).getCacheStatistics();
+            }
+        }
+        // no backing map in this JVM (local schemes, storage disabled members): count client side only
+        return new SimpleCacheStatistics();
+    }
+
     @Override
     public void clearStatistics() {
         statistics.resetHitStatistics();
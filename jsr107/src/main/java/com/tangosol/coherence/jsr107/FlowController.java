@@ -0,0 +1,219 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107;
+
+import com.tangosol.net.Member;
+
+import javax.cache.CacheException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Splits bulk operations into chunks and bounds the chunks in flight to each
+ * storage member.
+ * <p/>
+ * The chunk size is a number of serialized bytes, adapted after every chunk:
+ * it doubles while chunks complete well within the target latency and halves
+ * when they take longer. Chunks for different members run in parallel; the
+ * thread issuing them blocks while a member has its maximum in flight.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+class FlowController {
+    private static final int MIN_CHUNK_BYTES = 16 * 1024;
+    private static final int MAX_CHUNK_BYTES = 4 * 1024 * 1024;
+    private static final int INITIAL_CHUNK_BYTES = 256 * 1024;
+    private static final long TARGET_LATENCY_NANOS = 50L * 1000 * 1000;
+    private static final int MAX_IN_FLIGHT_PER_MEMBER = 4;
+    private static final Object NO_OWNER = new Object();
+
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "CoherenceCache-chunk-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final AtomicInteger chunkBytes = new AtomicInteger(INITIAL_CHUNK_BYTES);
+    private final ConcurrentHashMap<Object, Semaphore> inFlight = new ConcurrentHashMap<Object, Semaphore>();
+
+    /**
+     * How a bulk operation is chunked and what it does with each chunk.
+     */
+    interface Chunking<T> {
+
+        /**
+         * @param item an item of the operation
+         * @return the member owning the item, or null if not known
+         */
+        Member getOwner(T item);
+
+        /**
+         * @param item an item of the operation
+         * @return the serialized size of the item in bytes
+         */
+        int getWeight(T item);
+
+        /**
+         * Process a chunk of items, all owned by the same member.
+         *
+         * @param chunk the items
+         */
+        void process(List<T> chunk);
+    }
+
+    /**
+     * Process every item in chunks, returning once all chunks are processed.
+     * An operation that fits a single chunk is processed on the calling thread.
+     *
+     * @param items    the items
+     * @param chunking the chunking of the operation
+     * @throws RuntimeException the first exception a chunk failed with
+     */
+    <T> void process(Collection<? extends T> items, Chunking<T> chunking) {
+        int limit = chunkBytes.get();
+        Map<Object, List<Chunk<T>>> chunksByOwner = new HashMap<Object, List<Chunk<T>>>();
+        int chunkCount = 0;
+        for (T item : items) {
+            Member member = chunking.getOwner(item);
+            Object owner = member == null ? NO_OWNER : member;
+            List<Chunk<T>> chunks = chunksByOwner.get(owner);
+            if (chunks == null) {
+                chunks = new ArrayList<Chunk<T>>();
+                chunksByOwner.put(owner, chunks);
+            }
+            Chunk<T> chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+            if (chunk == null || chunk.weight >= limit) {
+                chunk = new Chunk<T>();
+                chunks.add(chunk);
+                chunkCount++;
+            }
+            chunk.items.add(item);
+            chunk.weight += chunking.getWeight(item);
+        }
+        if (chunkCount == 0) {
+            return;
+        }
+        if (chunkCount == 1) {
+            run(chunking, chunksByOwner.values().iterator().next().get(0));
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<Future<?>>(chunkCount);
+        try {
+            // interleave the members so that their chunks overlap
+            for (int i = 0; futures.size() < chunkCount; i++) {
+                for (Map.Entry<Object, List<Chunk<T>>> entry : chunksByOwner.entrySet()) {
+                    if (i < entry.getValue().size()) {
+                        futures.add(submit(entry.getKey(), chunking, entry.getValue().get(i)));
+                    }
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CacheException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CacheException(cause);
+        } finally {
+            for (Future<?> future : futures) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    private <T> Future<?> submit(Object owner, final Chunking<T> chunking, final Chunk<T> chunk)
+        throws InterruptedException {
+        final Semaphore permits = getPermits(owner);
+        permits.acquire();
+        try {
+            return EXECUTOR.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        FlowController.this.run(chunking, chunk);
+                    } finally {
+                        permits.release();
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private <T> void run(Chunking<T> chunking, Chunk<T> chunk) {
+        long start = System.nanoTime();
+        chunking.process(chunk.items);
+        adapt(System.nanoTime() - start, chunk.weight);
+    }
+
+    private void adapt(long latencyNanos, int weight) {
+        int current = chunkBytes.get();
+        if (latencyNanos > TARGET_LATENCY_NANOS) {
+            chunkBytes.compareAndSet(current, Math.max(MIN_CHUNK_BYTES, current / 2));
+        } else if (latencyNanos < TARGET_LATENCY_NANOS / 2 && weight >= current) {
+            // only a full chunk says anything about a larger one
+            chunkBytes.compareAndSet(current, Math.min(MAX_CHUNK_BYTES, current * 2));
+        }
+    }
+
+    private Semaphore getPermits(Object owner) {
+        Semaphore permits = inFlight.get(owner);
+        if (permits == null) {
+            Semaphore created = new Semaphore(MAX_IN_FLIGHT_PER_MEMBER);
+            permits = inFlight.putIfAbsent(owner, created);
+            if (permits == null) {
+                permits = created;
+            }
+        }
+        return permits;
+    }
+
+    private static class Chunk<T> {
+        private final List<T> items = new ArrayList<T>();
+        private int weight;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107;
+
+import java.io.Serializable;
+
+/**
+ * Limits on the cache loader calls each storage member makes for a cache, so
+ * a slow backing store cannot take over every service worker thread.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public class LoaderLimits implements Serializable {
+    private final int maxConcurrent;
+    private final int maxPerSecond;
+    private final OverflowPolicy overflowPolicy;
+    private final long queueTimeoutMillis;
+
+    /**
+     * @param maxConcurrent      the most loader calls running at once on a member, or 0 for no limit
+     * @param maxPerSecond       the most loader calls started per second on a member, or 0 for no limit
+     * @param overflowPolicy     what a call beyond the limits does
+     * @param queueTimeoutMillis how long a queued call waits before failing
+     */
+    public LoaderLimits(int maxConcurrent, int maxPerSecond, OverflowPolicy overflowPolicy, long queueTimeoutMillis) {
+        if (maxConcurrent < 0) {
+            throw new IllegalArgumentException("maxConcurrent");
+        }
+        if (maxPerSecond < 0) {
+            throw new IllegalArgumentException("maxPerSecond");
+        }
+        if (overflowPolicy == null) {
+            throw new NullPointerException("overflowPolicy");
+        }
+        if (queueTimeoutMillis < 0) {
+            throw new IllegalArgumentException("queueTimeoutMillis");
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.maxPerSecond = maxPerSecond;
+        this.overflowPolicy = overflowPolicy;
+        this.queueTimeoutMillis = queueTimeoutMillis;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getMaxPerSecond() {
+        return maxPerSecond;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public long getQueueTimeoutMillis() {
+        return queueTimeoutMillis;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        LoaderLimits that = (LoaderLimits) o;
+        return maxConcurrent == that.maxConcurrent
+            && maxPerSecond == that.maxPerSecond
+            && overflowPolicy == that.overflowPolicy
+            && queueTimeoutMillis == that.queueTimeoutMillis;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = maxConcurrent;
+        result = 31 * result + maxPerSecond;
+        result = 31 * result + overflowPolicy.hashCode();
+        result = 31 * result + (int) (queueTimeoutMillis ^ (queueTimeoutMillis >>> 32));
+        return result;
+    }
+
+    /**
+     * What a loader call beyond the limits does.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Wait, holding the worker thread, for up to the queue timeout.
+         */
+        QUEUE,
+
+        /**
+         * Fail at once with a CacheException, freeing the worker thread.
+         */
+        FAIL_FAST
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107;
+
+import javax.cache.Cache;
+import java.util.Map;
+
+/**
+ * Processes several co-located entries of a cache atomically, on the storage
+ * member owning their partition.
+ *
+ * @author ycosmado
+ * @since 1.0
+ * @see CoherenceCache#invokeEntryProcessor(Object, java.util.Set, MultiEntryProcessor)
+ */
+public interface MultiEntryProcessor<K, V> {
+
+    /**
+     * Process the entries. Updates to any of them are committed together once
+     * this returns, and none are if it throws.
+     *
+     * @param entries the entries by key, starting with the entry of the key invoked against
+     * @return the result of the processing
+     */
+    Object process(Map<K, Cache.MutableEntry<K, V>> entries);
+}
@@ -0,0 +1,221 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107;
+
+import com.tangosol.util.Converter;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import javax.cache.Cache;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the entries of a bulk read one partition's worth at a time.
+ * <p/>
+ * Each fetch returns the Binary values of one partition. Fetches start only
+ * while the subscriber has outstanding demand and nothing is buffered, at
+ * most {@link #MAX_FETCHES} at a time, so the entries held in memory are
+ * bounded by a few partitions whatever the size of the read. Values are
+ * decoded as they are emitted.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+class PartitionedPublisher<K, V> implements Publisher<Cache.Entry<K, V>> {
+    private static final int MAX_FETCHES = 4;
+
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "CoherenceCache-publish-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final List<Callable<Map<K, Object>>> fetches;
+    private final Converter decoder;
+
+    /**
+     * @param fetches the reads of each partition
+     * @param decoder converts a Binary value to the value
+     */
+    PartitionedPublisher(List<Callable<Map<K, Object>>> fetches, Converter decoder) {
+        this.fetches = fetches;
+        this.decoder = decoder;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super Cache.Entry<K, V>> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException();
+        }
+        PartitionSubscription subscription = new PartitionSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.drain();
+    }
+
+    private class PartitionSubscription implements Subscription {
+        private final Subscriber<? super Cache.Entry<K, V>> subscriber;
+        private final Iterator<Callable<Map<K, Object>>> pending = fetches.iterator();
+        private final ConcurrentLinkedQueue<Map.Entry<K, Object>> buffer =
+            new ConcurrentLinkedQueue<Map.Entry<K, Object>>();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+        private boolean done;
+
+        PartitionSubscription(Subscriber<? super Cache.Entry<K, V>> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Requested " + n + " entries, must be positive");
+            } else {
+                long current;
+                long next;
+                do {
+                    current = requested.get();
+                    next = current + n < 0 ? Long.MAX_VALUE : current + n;
+                } while (!requested.compareAndSet(current, next));
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        /**
+         * Emit what is buffered and demanded, start fetches and signal the end,
+         * on whichever thread gets here first while the others leave it work.
+         */
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            while (true) {
+                if (!done) {
+                    drainOnce();
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void drainOnce() {
+            while (true) {
+                if (cancelled) {
+                    done = true;
+                    buffer.clear();
+                    return;
+                }
+                if (error != null) {
+                    done = true;
+                    buffer.clear();
+                    subscriber.onError(error);
+                    return;
+                }
+                Map.Entry<K, Object> entry;
+                try {
+                    while (requested.get() > 0 && !cancelled && error == null && (entry = buffer.poll()) != null) {
+                        requested.decrementAndGet();
+                        subscriber.onNext(toCacheEntry(entry.getKey(), (V) decoder.convert(entry.getValue())));
+                    }
+                } catch (Throwable e) {
+                    // a value that cannot be decoded ends the subscription
+                    cancelled = true;
+                    done = true;
+                    buffer.clear();
+                    subscriber.onError(e);
+                    return;
+                }
+                if (cancelled || error != null) {
+                    continue;
+                }
+                // a fetch fills the buffer before leaving the flight, so check in the opposite order
+                if (inFlight.get() == 0 && !pending.hasNext() && buffer.isEmpty()) {
+                    done = true;
+                    subscriber.onComplete();
+                    return;
+                }
+                while (requested.get() > 0 && buffer.isEmpty() && inFlight.get() < MAX_FETCHES && pending.hasNext()) {
+                    fetch(pending.next());
+                }
+                return;
+            }
+        }
+
+        private void fetch(final Callable<Map<K, Object>> partitionFetch) {
+            inFlight.incrementAndGet();
+            EXECUTOR.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        if (!cancelled) {
+                            buffer.addAll(partitionFetch.call().entrySet());
+                        }
+                    } catch (Throwable e) {
+                        error = e;
+                    } finally {
+                        inFlight.decrementAndGet();
+                        drain();
+                    }
+                }
+            });
+        }
+    }
+
+    private static <K, V> Cache.Entry<K, V> toCacheEntry(final K key, final V value) {
+        return new Cache.Entry<K, V>() {
+            @Override
+            public K getKey() {
+                return key;
+            }
+
+            @Override
+            public V getValue() {
+                return value;
+            }
+        };
+    }
+}
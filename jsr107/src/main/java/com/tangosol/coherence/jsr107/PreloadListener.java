@@ -0,0 +1,41 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107;
+
+/**
+ * Receives the progress of a cache preload.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public interface PreloadListener {
+
+    /**
+     * Called each time a batch of keys has been loaded, and once more when the
+     * preload is complete. May be called concurrently from several threads.
+     *
+     * @param cacheName     the name of the cache being preloaded
+     * @param keysProcessed the number of keys sent to the storage members so far
+     * @param entriesLoaded the number of entries the cache loader returned so far
+     * @param complete      true for the final call
+     */
+    void onProgress(String cacheName, long keysProcessed, long entriesLoaded, boolean complete);
+}
@@ -0,0 +1,204 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107;
+
+import com.tangosol.coherence.jsr107.processors.ProcessorFactory;
+import com.tangosol.net.BackingMapManagerContext;
+import com.tangosol.net.NamedCache;
+import com.tangosol.util.Binary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Combines puts made within a short window into one invocation per partition.
+ * <p/>
+ * The first put to a partition opens a batch that is flushed once the window
+ * has passed; puts to the partition in the meantime join the batch, the last
+ * one winning for a key. The flush invokes a processor against the batch's
+ * keys, which sets each entry's value as a single put would, so the entries
+ * are locked, backed up and observed as usual. Every put of a batch shares
+ * the future of its flush.
+ * <p/>
+ * The flushes are scheduled on the scheduler of the cache manager, shared by
+ * all its caches.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+class WriteCombiner<K, V> {
+    private final NamedCache namedCache;
+    private final ProcessorFactory<K, V> processorFactory;
+    private final BackingMapManagerContext context;
+    private final long windowMillis;
+    private final ScheduledExecutorService scheduler;
+    private final ConcurrentHashMap<Integer, Batch> batches = new ConcurrentHashMap<Integer, Batch>();
+    private final Set<Flush> unfinished = Collections.newSetFromMap(new ConcurrentHashMap<Flush, Boolean>());
+    private volatile boolean closed;
+
+    /**
+     * @param namedCache       the partitioned cache
+     * @param processorFactory the factory of the cache
+     * @param windowMillis     how long a batch stays open
+     * @param scheduler        the scheduler of the flushes
+     */
+    WriteCombiner(NamedCache namedCache, ProcessorFactory<K, V> processorFactory, long windowMillis,
+                  ScheduledExecutorService scheduler) {
+        this.namedCache = namedCache;
+        this.processorFactory = processorFactory;
+        this.context = namedCache.getCacheService().getBackingMapManager().getContext();
+        this.windowMillis = windowMillis;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Add a put to the open batch of its partition.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the future of the batch's flush
+     * @throws IllegalStateException if the combiner is closed
+     */
+    Future<Void> put(K key, V value) {
+        if (closed) {
+            throw new IllegalStateException("The cache is stopping");
+        }
+        Binary bKey = processorFactory.keyToBinary(key);
+        Binary bValue = processorFactory.valueToBinary(value);
+        int partition = context.getKeyPartition(bKey);
+        while (true) {
+            Batch batch = batches.get(partition);
+            if (batch == null) {
+                Batch created = new Batch(partition);
+                batch = batches.putIfAbsent(partition, created);
+                if (batch == null) {
+                    batch = created;
+                    unfinished.add(created.flush);
+                    try {
+                        scheduler.schedule(created.flush, windowMillis, TimeUnit.MILLISECONDS);
+                    } catch (RejectedExecutionException e) {
+                        // the manager is shut down; fail the puts that joined the batch meanwhile
+                        IllegalStateException failure = new IllegalStateException("The cache is stopping");
+                        batches.remove(partition, created);
+                        created.fail(failure);
+                        throw failure;
+                    }
+                }
+            }
+            if (batch.add(key, bKey, bValue)) {
+                return batch.flush;
+            }
+            // the batch was flushed, or failed, while we got to it
+            batches.remove(partition, batch);
+            if (closed) {
+                throw new IllegalStateException("The cache is stopping");
+            }
+        }
+    }
+
+    /**
+     * Stop accepting puts, then flush the open batches and wait for them.
+     */
+    void close() throws InterruptedException {
+        closed = true;
+        List<Flush> flushes = new ArrayList<Flush>(unfinished);
+        // a flush already run, or running on the scheduler, does not run again
+        for (Flush flush : flushes) {
+            flush.run();
+        }
+        for (Flush flush : flushes) {
+            try {
+                flush.get();
+            } catch (ExecutionException e) {
+                // reported to the puts of the batch
+            }
+        }
+    }
+
+    private class Batch implements Callable<Void> {
+        private final int partition;
+        private final Set<K> keys = new HashSet<K>();
+        private final Map<Binary, Binary> entries = new HashMap<Binary, Binary>();
+        private final Flush flush = new Flush(this);
+        private boolean closed;
+
+        Batch(int partition) {
+            this.partition = partition;
+        }
+
+        synchronized boolean add(K key, Binary bKey, Binary bValue) {
+            if (closed) {
+                return false;
+            }
+            keys.add(key);
+            entries.put(bKey, bValue);
+            return true;
+        }
+
+        void fail(Throwable failure) {
+            synchronized (this) {
+                closed = true;
+            }
+            flush.fail(failure);
+        }
+
+        @Override
+        public Void call() {
+            batches.remove(partition, this);
+            synchronized (this) {
+                closed = true;
+            }
+            if (!entries.isEmpty()) {
+                namedCache.invokeAll(keys, processorFactory.getNoResultProcessor(
+                    processorFactory.getBinaryPutProcessor(entries)));
+            }
+            return null;
+        }
+    }
+
+    private class Flush extends FutureTask<Void> {
+        Flush(Callable<Void> callable) {
+            super(callable);
+        }
+
+        void fail(Throwable failure) {
+            setException(failure);
+        }
+
+        @Override
+        protected void done() {
+            unfinished.remove(this);
+        }
+    }
+}
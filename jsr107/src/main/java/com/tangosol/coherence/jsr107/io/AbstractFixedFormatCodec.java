@@ -0,0 +1,107 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.io;
+
+import com.tangosol.io.ReadBuffer;
+import com.tangosol.io.WriteBuffer;
+import com.tangosol.util.Binary;
+import com.tangosol.util.BinaryWriteBuffer;
+import com.tangosol.util.WrapperException;
+
+import java.io.IOException;
+
+/**
+ * Base class for codecs of a single value type with a fixed Binary layout.
+ * <p/>
+ * Every Binary starts with a format byte identifying the codec, followed by
+ * the payload. The format byte keeps the values clear of the Coherence
+ * decoration markers and lets a codec reject values written by another one.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public abstract class AbstractFixedFormatCodec implements BinaryCodec {
+    protected static final byte FMT_STRING = 0x61;
+    protected static final byte FMT_LONG = 0x62;
+    protected static final byte FMT_INTEGER = 0x63;
+    protected static final byte FMT_BYTES = 0x64;
+
+    private final byte format;
+    private final Class<?> type;
+
+    protected AbstractFixedFormatCodec(byte format, Class<?> type) {
+        this.format = format;
+        this.type = type;
+    }
+
+    @Override
+    public Binary toBinary(Object o, ClassLoader classLoader) {
+        if (!type.isInstance(o)) {
+            throw new IllegalArgumentException("Expected a " + type.getName() + ", not "
+                + (o == null ? "null" : o.getClass().getName()));
+        }
+        BinaryWriteBuffer buffer = new BinaryWriteBuffer(1 + getPayloadSize(o));
+        WriteBuffer.BufferOutput out = buffer.getBufferOutput();
+        try {
+            out.writeByte(format);
+            writePayload(out, o);
+        } catch (IOException e) {
+            throw new WrapperException(e);
+        }
+        return buffer.toBinary();
+    }
+
+    @Override
+    public Object fromBinary(Binary binary, ClassLoader classLoader) {
+        if (binary.length() == 0 || binary.byteAt(0) != format) {
+            throw new IllegalArgumentException("Binary was not written by " + getClass().getName());
+        }
+        ReadBuffer.BufferInput in = binary.getBufferInput();
+        try {
+            in.skipBytes(1);
+            return readPayload(in, binary.length() - 1);
+        } catch (IOException e) {
+            throw new WrapperException(e);
+        }
+    }
+
+    /**
+     * The exact number of bytes {@link #writePayload} will write for the value.
+     *
+     * @param o the value
+     * @return the payload size
+     */
+    protected abstract int getPayloadSize(Object o);
+
+    protected abstract void writePayload(WriteBuffer.BufferOutput out, Object o) throws IOException;
+
+    protected abstract Object readPayload(ReadBuffer.BufferInput in, int length) throws IOException;
+
+    @Override
+    public boolean equals(Object o) {
+        return o != null && getClass() == o.getClass();
+    }
+
+    @Override
+    public int hashCode() {
+        return format;
+    }
+}
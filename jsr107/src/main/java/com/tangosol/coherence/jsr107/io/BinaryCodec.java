@@ -0,0 +1,56 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.io;
+
+import com.tangosol.util.Binary;
+
+import java.io.Serializable;
+
+/**
+ * Converts cache values to and from the Binary form held by the backing map.
+ * <p/>
+ * A codec is used on the client and is shipped to the storage members with
+ * the processors that need to read or write values there, so implementations
+ * must be serializable and hold no client-only state.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public interface BinaryCodec extends Serializable {
+
+    /**
+     * Convert a value to its Binary form.
+     *
+     * @param o           the value
+     * @param classLoader the class loader of the cache
+     * @return the Binary form of the value
+     */
+    Binary toBinary(Object o, ClassLoader classLoader);
+
+    /**
+     * Convert a Binary back to a value.
+     *
+     * @param binary      the Binary form of the value
+     * @param classLoader the class loader of the cache
+     * @return the value
+     */
+    Object fromBinary(Binary binary, ClassLoader classLoader);
+}
@@ -0,0 +1,116 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.io;
+
+import com.tangosol.io.SerializerFactory;
+
+/**
+ * Factory methods for the codecs that can be set on a cache with
+ * {@link com.tangosol.coherence.jsr107.CoherenceCacheBuilder#setValueCodec(BinaryCodec)}.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public final class BinaryCodecs {
+    private static final BinaryCodec STRING = new StringCodec();
+    private static final BinaryCodec LONG = new LongCodec();
+    private static final BinaryCodec INTEGER = new IntegerCodec();
+    private static final BinaryCodec BYTE_ARRAY = new ByteArrayCodec();
+    private static final BinaryCodec RAW = new ByteBufferCodec();
+
+    private BinaryCodecs() {
+    }
+
+    /**
+     * A fixed-format codec for String values.
+     *
+     * @return the codec
+     */
+    public static BinaryCodec forString() {
+        return STRING;
+    }
+
+    /**
+     * A fixed-format codec for Long values.
+     *
+     * @return the codec
+     */
+    public static BinaryCodec forLong() {
+        return LONG;
+    }
+
+    /**
+     * A fixed-format codec for Integer values.
+     *
+     * @return the codec
+     */
+    public static BinaryCodec forInteger() {
+        return INTEGER;
+    }
+
+    /**
+     * A fixed-format codec for byte[] values.
+     *
+     * @return the codec
+     */
+    public static BinaryCodec forByteArray() {
+        return BYTE_ARRAY;
+    }
+
+    /**
+     * A pass-through codec for values that are already serialized: ByteBuffer or
+     * byte[] values are stored as is and read back as read-only ByteBuffer views.
+     *
+     * @return the codec
+     */
+    public static BinaryCodec raw() {
+        return RAW;
+    }
+
+    /**
+     * A POF codec using the user types registered in the given POF configuration.
+     *
+     * @param pofConfigUri the location of the POF configuration
+     * @return the codec
+     */
+    public static BinaryCodec pof(String pofConfigUri) {
+        return new SerializerCodec(new PofSerializerFactory(pofConfigUri));
+    }
+
+    /**
+     * A codec for ExternalizableLite values, using the Coherence default serializer.
+     *
+     * @return the codec
+     */
+    public static BinaryCodec externalizableLite() {
+        return new SerializerCodec(new DefaultSerializerFactory());
+    }
+
+    /**
+     * A codec for a custom serializer.
+     *
+     * @param serializerFactory a serializable factory for the serializer
+     * @return the codec
+     */
+    public static BinaryCodec serializer(SerializerFactory serializerFactory) {
+        return new SerializerCodec(serializerFactory);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.io;
+
+import com.tangosol.io.ReadBuffer;
+import com.tangosol.io.WriteBuffer;
+
+import java.io.IOException;
+
+/**
+ * Stores byte[] values as the bytes themselves, without a length or type header.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public class ByteArrayCodec extends AbstractFixedFormatCodec {
+
+    public ByteArrayCodec() {
+        super(FMT_BYTES, byte[].class);
+    }
+
+    @Override
+    protected int getPayloadSize(Object o) {
+        return ((byte[]) o).length;
+    }
+
+    @Override
+    protected void writePayload(WriteBuffer.BufferOutput out, Object o) throws IOException {
+        out.write((byte[]) o);
+    }
+
+    @Override
+    protected Object readPayload(ReadBuffer.BufferInput in, int length) throws IOException {
+        byte[] ab = new byte[length];
+        in.readFully(ab);
+        return ab;
+    }
+}
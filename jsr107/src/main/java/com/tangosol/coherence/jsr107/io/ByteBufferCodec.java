@@ -0,0 +1,101 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.io;
+
+import com.tangosol.io.WriteBuffer;
+import com.tangosol.util.Binary;
+import com.tangosol.util.BinaryWriteBuffer;
+import com.tangosol.util.WrapperException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Treats values as opaque bytes, for payloads that are already serialized.
+ * <p/>
+ * A ByteBuffer or byte[] is written as is, straight into the Binary that is
+ * sent to the cluster; the bytes are neither re-encoded nor given a
+ * serialization header. Values are read back as read-only ByteBuffer views
+ * over the received Binary, so no array is allocated or copied on the way
+ * out. The layout is the same as {@link ByteArrayCodec}, but as nothing is
+ * read through a stream the codec does not share its base class.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public class ByteBufferCodec implements BinaryCodec {
+    private static final int CHUNK_SIZE = 8192;
+
+    @Override
+    public Binary toBinary(Object o, ClassLoader classLoader) {
+        ByteBuffer buffer;
+        if (o instanceof ByteBuffer) {
+            buffer = (ByteBuffer) o;
+        } else if (o instanceof byte[]) {
+            buffer = ByteBuffer.wrap((byte[]) o);
+        } else {
+            throw new IllegalArgumentException("Expected a ByteBuffer or byte[], not "
+                + (o == null ? "null" : o.getClass().getName()));
+        }
+        BinaryWriteBuffer binary = new BinaryWriteBuffer(1 + buffer.remaining());
+        WriteBuffer.BufferOutput out = binary.getBufferOutput();
+        try {
+            out.writeByte(AbstractFixedFormatCodec.FMT_BYTES);
+            write(out, buffer);
+        } catch (IOException e) {
+            throw new WrapperException(e);
+        }
+        return binary.toBinary();
+    }
+
+    @Override
+    public Object fromBinary(Binary binary, ClassLoader classLoader) {
+        if (binary.length() == 0 || binary.byteAt(0) != AbstractFixedFormatCodec.FMT_BYTES) {
+            throw new IllegalArgumentException("Binary was not written by " + getClass().getName());
+        }
+        return binary.toByteBuffer(1, binary.length() - 1);
+    }
+
+    private static void write(WriteBuffer.BufferOutput out, ByteBuffer buffer) throws IOException {
+        if (buffer.hasArray()) {
+            out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        } else {
+            // direct or read-only buffer: copy through a chunk, leaving the caller's position alone
+            ByteBuffer source = buffer.duplicate();
+            byte[] chunk = new byte[Math.min(CHUNK_SIZE, source.remaining())];
+            while (source.hasRemaining()) {
+                int cb = Math.min(chunk.length, source.remaining());
+                source.get(chunk, 0, cb);
+                out.write(chunk, 0, cb);
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o != null && getClass() == o.getClass();
+    }
+
+    @Override
+    public int hashCode() {
+        return AbstractFixedFormatCodec.FMT_BYTES;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.io;
+
+import com.tangosol.io.DefaultSerializer;
+import com.tangosol.io.Serializer;
+import com.tangosol.io.SerializerFactory;
+
+import java.io.Serializable;
+
+/**
+ * Creates the Coherence default serializer, which writes ExternalizableLite
+ * values and the common JDK types natively and falls back to Java
+ * serialization for anything else.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public class DefaultSerializerFactory implements SerializerFactory, Serializable {
+
+    @Override
+    public Serializer createSerializer(ClassLoader classLoader) {
+        return new DefaultSerializer(classLoader);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DefaultSerializerFactory;
+    }
+
+    @Override
+    public int hashCode() {
+        return DefaultSerializerFactory.class.hashCode();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Map;
+
+/**
+ * Decodes one entry per line of text, lines ending in '\n' or "\r\n".
+ * Empty lines are skipped.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public abstract class LineRecordDecoder<K, V> implements RecordDecoder<K, V> {
+    private final Charset charset;
+
+    protected LineRecordDecoder(Charset charset) {
+        if (charset == null) {
+            throw new NullPointerException("charset");
+        }
+        this.charset = charset;
+    }
+
+    @Override
+    public Map.Entry<K, V> decode(ByteBuffer buffer, boolean endOfInput) {
+        while (buffer.hasRemaining()) {
+            int start = buffer.position();
+            int end = indexOf(buffer, (byte) '\n');
+            if (end < 0) {
+                if (!endOfInput) {
+                    return null;
+                }
+                end = buffer.limit();
+            }
+            int next = Math.min(end + 1, buffer.limit());
+            if (end > start && buffer.get(end - 1) == '\r') {
+                end--;
+            }
+            ByteBuffer line = buffer.duplicate();
+            line.limit(end);
+            buffer.position(next);
+            if (end > start) {
+                return decodeLine(charset.decode(line).toString());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Decode an entry from a line.
+     *
+     * @param line the line, without its terminator
+     * @return the entry
+     */
+    protected abstract Map.Entry<K, V> decodeLine(String line);
+
+    private static int indexOf(ByteBuffer buffer, byte b) {
+        for (int i = buffer.position(), limit = buffer.limit(); i < limit; i++) {
+            if (buffer.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
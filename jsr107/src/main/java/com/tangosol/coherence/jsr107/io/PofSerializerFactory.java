@@ -0,0 +1,64 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.io;
+
+import com.tangosol.io.Serializer;
+import com.tangosol.io.SerializerFactory;
+import com.tangosol.io.pof.ConfigurablePofContext;
+
+import java.io.Serializable;
+
+/**
+ * Creates POF serializers with the user types registered in a POF configuration.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public class PofSerializerFactory implements SerializerFactory, Serializable {
+    private final String configUri;
+
+    /**
+     * @param configUri the location of the POF configuration holding the user type registry
+     */
+    public PofSerializerFactory(String configUri) {
+        if (configUri == null) {
+            throw new NullPointerException("configUri");
+        }
+        this.configUri = configUri;
+    }
+
+    @Override
+    public Serializer createSerializer(ClassLoader classLoader) {
+        ConfigurablePofContext context = new ConfigurablePofContext(configUri);
+        context.setContextClassLoader(classLoader);
+        return context;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PofSerializerFactory && configUri.equals(((PofSerializerFactory) o).configUri);
+    }
+
+    @Override
+    public int hashCode() {
+        return configUri.hashCode();
+    }
+}
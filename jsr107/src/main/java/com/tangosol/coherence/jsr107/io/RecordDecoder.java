@@ -0,0 +1,48 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.io;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Decodes cache entries from a stream of bytes, one record at a time.
+ * <p/>
+ * Used by bulk ingest, which reads the stream through an NIO channel into a
+ * buffer and calls the decoder on a single thread until the buffer holds no
+ * further complete record.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public interface RecordDecoder<K, V> {
+
+    /**
+     * Decode the next record from the buffer, advancing its position past the
+     * record. A partial record must be left in the buffer, it is decoded again
+     * once more bytes have been read.
+     *
+     * @param buffer     the bytes read so far, from the position to the limit
+     * @param endOfInput true if no bytes follow those in the buffer
+     * @return the entry, or null if the buffer holds no complete record
+     */
+    Map.Entry<K, V> decode(ByteBuffer buffer, boolean endOfInput);
+}
@@ -0,0 +1,97 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.io;
+
+import com.tangosol.io.Serializer;
+import com.tangosol.io.SerializerFactory;
+import com.tangosol.util.Binary;
+import com.tangosol.util.ExternalizableHelper;
+
+/**
+ * A codec that delegates to a Coherence {@link Serializer}.
+ * <p/>
+ * The serializer is created on first use on each side of the wire, so only
+ * the {@link SerializerFactory} travels with the processors and it has to be
+ * serializable.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public class SerializerCodec implements BinaryCodec {
+    private final SerializerFactory serializerFactory;
+    private transient volatile SerializerHolder holder;
+
+    public SerializerCodec(SerializerFactory serializerFactory) {
+        if (serializerFactory == null) {
+            throw new NullPointerException("serializerFactory");
+        }
+        this.serializerFactory = serializerFactory;
+    }
+
+    @Override
+    public Binary toBinary(Object o, ClassLoader classLoader) {
+        return ExternalizableHelper.toBinary(o, getSerializer(classLoader));
+    }
+
+    @Override
+    public Object fromBinary(Binary binary, ClassLoader classLoader) {
+        return ExternalizableHelper.fromBinary(binary, getSerializer(classLoader));
+    }
+
+    public SerializerFactory getSerializerFactory() {
+        return serializerFactory;
+    }
+
+    private Serializer getSerializer(ClassLoader classLoader) {
+        SerializerHolder current = holder;
+        if (current == null || current.classLoader != classLoader) {
+            current = new SerializerHolder(classLoader, serializerFactory.createSerializer(classLoader));
+            holder = current;
+        }
+        return current.serializer;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return serializerFactory.equals(((SerializerCodec) o).serializerFactory);
+    }
+
+    @Override
+    public int hashCode() {
+        return serializerFactory.hashCode();
+    }
+
+    private static class SerializerHolder {
+        private final ClassLoader classLoader;
+        private final Serializer serializer;
+
+        SerializerHolder(ClassLoader classLoader, Serializer serializer) {
+            this.classLoader = classLoader;
+            this.serializer = serializer;
+        }
+    }
+}
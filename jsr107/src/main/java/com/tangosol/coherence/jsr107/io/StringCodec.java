@@ -0,0 +1,84 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.io;
+
+import com.tangosol.io.ReadBuffer;
+import com.tangosol.io.WriteBuffer;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * Stores String values as UTF-8 without a length header.
+ * <p/>
+ * ASCII strings, the common case for identifiers and codes, are encoded and
+ * decoded in place without going through a CharsetEncoder.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public class StringCodec extends AbstractFixedFormatCodec {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    public StringCodec() {
+        super(FMT_STRING, String.class);
+    }
+
+    @Override
+    protected int getPayloadSize(Object o) {
+        String s = (String) o;
+        return isAscii(s) ? s.length() : s.getBytes(UTF8).length;
+    }
+
+    @Override
+    protected void writePayload(WriteBuffer.BufferOutput out, Object o) throws IOException {
+        String s = (String) o;
+        if (isAscii(s)) {
+            out.writeBytes(s);
+        } else {
+            out.write(s.getBytes(UTF8));
+        }
+    }
+
+    @Override
+    protected Object readPayload(ReadBuffer.BufferInput in, int length) throws IOException {
+        byte[] ab = new byte[length];
+        in.readFully(ab);
+        char[] ach = new char[length];
+        for (int i = 0; i < length; i++) {
+            byte b = ab[i];
+            if (b < 0) {
+                return new String(ab, UTF8);
+            }
+            ach[i] = (char) b;
+        }
+        return new String(ach);
+    }
+
+    private static boolean isAscii(String s) {
+        for (int i = 0, c = s.length(); i < c; i++) {
+            if (s.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
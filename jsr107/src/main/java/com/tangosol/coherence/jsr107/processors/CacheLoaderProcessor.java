@@ -20,37 +20,75 @@
  */
 package com.tangosol.coherence.jsr107.processors;
 
+import com.tangosol.coherence.jsr107.io.BinaryCodec;
+import com.tangosol.util.BinaryEntry;
 import com.tangosol.util.InvocableMap;
 import com.tangosol.util.processor.AbstractProcessor;
 
 import javax.cache.Cache;
 import javax.cache.CacheLoader;
+import java.io.Serializable;
 
 /**
  * @author ycosmado
  * @since 1.0
  */
-public class CacheLoaderProcessor<K, V> extends AbstractProcessor {
+public class CacheLoaderProcessor<K, V> extends AbstractProcessor implements Serializable {
     private final InvocableMap.EntryProcessor next;
     private final CacheLoader<K, ? extends V> cacheLoader;
+    private final BinaryCodec codec;
+    private final LoaderOptions options;
 
-    public CacheLoaderProcessor(InvocableMap.EntryProcessor next, CacheLoader<K, ? extends V> cacheLoader) {
+    public CacheLoaderProcessor(InvocableMap.EntryProcessor next, CacheLoader<K, ? extends V> cacheLoader,
+                                BinaryCodec codec, LoaderOptions options) {
         this.next = next;
         this.cacheLoader = cacheLoader;
+        this.codec = codec;
+        this.options = options;
     }
 
     @Override
     public Object process(InvocableMap.Entry entry) {
         if (!entry.isPresent()) {
-            Cache.Entry<K, ? extends V> loaded = cacheLoader.load((K) entry.getKey());
-            if (loaded != null) {
+            Cache.Entry<K, ? extends V> loaded = load((K) entry.getKey());
+            if (loaded == null) {
+                if (options.getNegativeTimeToLiveMillis() > 0 && entry instanceof BinaryEntry) {
+                    // remember the miss so the loader is not asked again until the marker expires
+                    BinaryEntry bEntry = (BinaryEntry) entry;
+                    bEntry.updateBinaryValue(EntryValues.NEGATIVE);
+                    bEntry.expire(options.getNegativeTimeToLiveMillis());
+                }
+            } else {
                 V value = loaded.getValue();
                 if (value == null) {
                     throw new NullPointerException();
                 }
-                entry.setValue(value);
+                if (codec == null) {
+                    entry.setValue(value);
+                } else {
+                    BinaryEntry bEntry = (BinaryEntry) entry;
+                    bEntry.updateBinaryValue(codec.toBinary(value, bEntry.getContext().getClassLoader()));
+                }
+                if (options.getTimeToLiveMillis() > 0 && entry instanceof BinaryEntry) {
+                    ((BinaryEntry) entry).expire(options.getTimeToLiveMillis());
+                }
             }
+        } else if (options.isRefreshAhead() && entry instanceof BinaryEntry && !EntryValues.isNegative(entry)) {
+            RefreshAhead.refreshIfDue((BinaryEntry) entry, cacheLoader, codec, options);
         }
         return next.process(entry);
     }
+
+    private Cache.Entry<K, ? extends V> load(K key) {
+        LoaderBulkhead bulkhead = options.getBulkhead();
+        if (bulkhead == null) {
+            return cacheLoader.load(key);
+        }
+        bulkhead.enter();
+        try {
+            return cacheLoader.load(key);
+        } finally {
+            bulkhead.exit();
+        }
+    }
 }
@@ -0,0 +1,99 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.processors;
+
+import com.tangosol.coherence.jsr107.io.BinaryCodec;
+import com.tangosol.util.Binary;
+import com.tangosol.util.BinaryEntry;
+import com.tangosol.util.InvocableMap;
+import com.tangosol.util.ValueExtractor;
+import com.tangosol.util.extractor.AbstractExtractor;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Applies an extractor to the value of a cache entry as the client put it.
+ * <p/>
+ * Values written by a codec are decoded with the codec before extraction,
+ * since the cache service cannot deserialize them itself, and negative
+ * markers extract to null. Two instances are equal when they wrap equal
+ * extractors and equal codecs, so a filter built with one uses an index
+ * added with the other, but never one built from values decoded otherwise.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public class CacheValueExtractor extends AbstractExtractor implements Serializable {
+    private final ValueExtractor extractor;
+    private final BinaryCodec codec;
+
+    public CacheValueExtractor(ValueExtractor extractor, BinaryCodec codec) {
+        this.extractor = extractor;
+        this.codec = codec;
+    }
+
+    @Override
+    public Object extractFromEntry(Map.Entry entry) {
+        if (!(entry instanceof InvocableMap.Entry)) {
+            return extract(entry.getValue());
+        }
+        InvocableMap.Entry invocableEntry = (InvocableMap.Entry) entry;
+        if (!EntryValues.isPresent(invocableEntry)) {
+            return null;
+        }
+        if (codec == null) {
+            return invocableEntry.extract(extractor);
+        }
+        ClassLoader classLoader = entry instanceof BinaryEntry ?
+            ((BinaryEntry) entry).getContext().getClassLoader() :
+            Thread.currentThread().getContextClassLoader();
+        return extractor.extract(codec.fromBinary((Binary) EntryValues.getValue(invocableEntry), classLoader));
+    }
+
+    @Override
+    public Object extract(Object o) {
+        return extractor.extract(o);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheValueExtractor)) {
+            return false;
+        }
+        CacheValueExtractor that = (CacheValueExtractor) o;
+        return extractor.equals(that.extractor)
+            && (codec == null ? that.codec == null : codec.equals(that.codec));
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * extractor.hashCode() + (codec == null ? 0 : codec.hashCode());
+    }
+
+    @Override
+    public String toString() {
+        return "CacheValueExtractor(" + extractor + ")";
+    }
+}
@@ -20,8 +20,11 @@
  */
 package com.tangosol.coherence.jsr107.processors;
 
+import com.tangosol.net.GuardSupport;
 import com.tangosol.util.InvocableMap;
+import com.tangosol.util.LiteMap;
 
+import java.io.Serializable;
 import java.util.Map;
 import java.util.Set;
 
@@ -29,14 +32,25 @@ import java.util.Set;
  * @author ycosmado
  * @since 1.0
  */
-public class ContainsKeyProcessor implements InvocableMap.EntryProcessor {
+public class ContainsKeyProcessor implements InvocableMap.EntryProcessor, Serializable {
     @Override
     public Object process(InvocableMap.Entry entry) {
-        return entry.isPresent();
+        return EntryValues.isPresent(entry);
     }
 
+    /**
+     * Map each present key to true; absent keys, negative markers included, are left out.
+     */
     @Override
     public Map processAll(Set setEntries) {
-        throw new UnsupportedOperationException();
+        Map mapResults = new LiteMap();
+        for (Object setEntry : setEntries) {
+            GuardSupport.heartbeat();
+            InvocableMap.Entry entry = (InvocableMap.Entry) setEntry;
+            if (EntryValues.isPresent(entry)) {
+                mapResults.put(entry.getKey(), Boolean.TRUE);
+            }
+        }
+        return mapResults;
     }
 }
@@ -20,9 +20,16 @@
  */
 package com.tangosol.coherence.jsr107.processors;
 
+import com.tangosol.coherence.jsr107.io.BinaryCodec;
+import com.tangosol.net.GuardSupport;
+import com.tangosol.util.Binary;
+import com.tangosol.util.BinaryEntry;
+import com.tangosol.util.ExternalizableHelper;
 import com.tangosol.util.InvocableMap;
+import com.tangosol.util.LiteMap;
 
 import javax.cache.Cache;
+import java.io.Serializable;
 import java.util.Map;
 import java.util.Set;
 
@@ -30,33 +37,60 @@ import java.util.Set;
  * @author ycosmado
  * @since 1.0
  */
-public class ConverterProcessor<K, V> implements InvocableMap.EntryProcessor {
+public class ConverterProcessor<K, V> implements InvocableMap.EntryProcessor, Serializable {
     private final Cache.EntryProcessor<K, V> processor;
+    private final BinaryCodec codec;
+    private final boolean byReference;
 
-    public ConverterProcessor(Cache.EntryProcessor<K, V> processor) {
+    /**
+     * @param processor   the processor
+     * @param codec       the value codec, or null to use the cache service's converters
+     * @param byReference whether a local cache stores the value objects themselves
+     */
+    public ConverterProcessor(Cache.EntryProcessor<K, V> processor, BinaryCodec codec, boolean byReference) {
         this.processor = processor;
+        this.codec = codec;
+        this.byReference = byReference;
     }
 
     @Override
     public Object process(InvocableMap.Entry entry) {
-        return processor.process(new ConverterEntry<K, V>(entry));
+        return processor.process(new ConverterEntry<K, V>(entry, codec, byReference));
     }
 
     @Override
     public Map processAll(Set set) {
-        throw new UnsupportedOperationException();
+        Map<Object, Object> results = new LiteMap();
+        for (Object o : set) {
+            GuardSupport.heartbeat();
+            InvocableMap.Entry entry = (InvocableMap.Entry) o;
+            results.put(entry.getKey(), process(entry));
+        }
+        return results;
     }
 
-    private static class ConverterEntry<K, V> implements Cache.MutableEntry<K, V> {
+    /**
+     * A view of an entry holding the values of the cache.
+     * <p/>
+     * The service converts the values of BinaryEntries itself unless they were
+     * written by a codec, and a local cache storing by reference holds the
+     * objects themselves; otherwise the stored Binary is decoded and encoded
+     * here, the way the cache does on the client.
+     */
+    static class ConverterEntry<K, V> implements Cache.MutableEntry<K, V> {
         private final InvocableMap.Entry entry;
+        private final BinaryCodec codec;
+        private final boolean byReference;
 
-        public ConverterEntry(InvocableMap.Entry entry) {
+        ConverterEntry(InvocableMap.Entry entry, BinaryCodec codec, boolean byReference) {
             this.entry = entry;
+            this.codec = codec;
+            this.byReference = byReference;
         }
 
         @Override
         public boolean exists() {
-            return entry.isPresent();
+            return EntryValues.isPresent(entry);
         }
 
         @Override
@@ -66,7 +100,13 @@ public class ConverterProcessor<K, V> implements InvocableMap.EntryProcessor {
 
         @Override
         public void setValue(V value) {
-            entry.setValue(value);
+            if (isConverted()) {
+                entry.setValue(value);
+            } else {
+                EntryValues.setValue(entry, codec == null ?
+                    ExternalizableHelper.toBinary(value) :
+                    codec.toBinary(value, getClassLoader()));
+            }
         }
 
         @Override
@@ -76,7 +116,29 @@ public class ConverterProcessor<K, V> implements InvocableMap.EntryProcessor {
 
         @Override
         public V getValue() {
-            return (V) entry.getValue();
+            if (!EntryValues.isPresent(entry)) {
+                return null;
+            }
+            if (isConverted()) {
+                return (V) entry.getValue();
+            }
+            Binary binary = (Binary) EntryValues.getValue(entry);
+            return (V) (codec == null ?
+                ExternalizableHelper.fromBinary(binary, getClassLoader()) :
+                codec.fromBinary(binary, getClassLoader()));
+        }
+
+        /**
+         * Whether the entry hands out and takes the value objects themselves.
+         */
+        private boolean isConverted() {
+            return codec == null && (byReference || entry instanceof BinaryEntry);
+        }
+
+        private ClassLoader getClassLoader() {
+            return entry instanceof BinaryEntry ?
+                ((BinaryEntry) entry).getContext().getClassLoader() :
+                Thread.currentThread().getContextClassLoader();
         }
     }
 }
@@ -0,0 +1,98 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.processors;
+
+import com.tangosol.coherence.jsr107.io.BinaryCodec;
+import com.tangosol.util.Binary;
+import com.tangosol.util.BinaryEntry;
+import com.tangosol.util.ExternalizableHelper;
+import com.tangosol.util.InvocableMap;
+
+/**
+ * Access to the stored form of an entry's value.
+ * <p/>
+ * Entries of partitioned caches are BinaryEntries and the stored form is the
+ * Binary. Local caches hand out plain entries whose values are whatever the
+ * client put: a Binary when storing by value, the object itself when storing
+ * by reference. Either way the value is passed through untouched.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+final class EntryValues {
+    /**
+     * The value stored for a key the cache loader could not load. It starts
+     * with a format byte used by neither the Coherence serializers nor the
+     * fixed-format codecs.
+     */
+    static final Binary NEGATIVE = new Binary(new byte[] {0x6E, 0x2D, 0x2D});
+
+    private EntryValues() {
+    }
+
+    /**
+     * Whether the entry holds a value, as opposed to nothing or a negative marker.
+     */
+    static boolean isPresent(InvocableMap.Entry entry) {
+        return entry.isPresent() && !isNegative(entry);
+    }
+
+    static boolean isNegative(InvocableMap.Entry entry) {
+        return entry.isPresent() && NEGATIVE.equals(getValue(entry));
+    }
+
+    static Object getValue(InvocableMap.Entry entry) {
+        return entry instanceof BinaryEntry ? ((BinaryEntry) entry).getBinaryValue() : entry.getValue();
+    }
+
+    /**
+     * The stored form of a value for the entry, as the client makes it with
+     * {@link ProcessorFactory#valueToBinary}, or the value itself for a local
+     * cache storing by reference.
+     *
+     * @param entry       the entry
+     * @param value       the value
+     * @param codec       the value codec, or null to use the cache service's converters
+     * @param byReference whether a local cache stores the value objects themselves
+     */
+    static Object toInternal(InvocableMap.Entry entry, Object value, BinaryCodec codec, boolean byReference) {
+        if (entry instanceof BinaryEntry) {
+            BinaryEntry bEntry = (BinaryEntry) entry;
+            return codec == null ?
+                bEntry.getContext().getValueToInternalConverter().convert(value) :
+                codec.toBinary(value, bEntry.getContext().getClassLoader());
+        }
+        if (byReference) {
+            return value;
+        }
+        return codec == null ?
+            ExternalizableHelper.toBinary(value) :
+            codec.toBinary(value, Thread.currentThread().getContextClassLoader());
+    }
+
+    static void setValue(InvocableMap.Entry entry, Object value) {
+        if (entry instanceof BinaryEntry) {
+            ((BinaryEntry) entry).updateBinaryValue((Binary) value);
+        } else {
+            entry.setValue(value, false);
+        }
+    }
+}
@@ -20,10 +20,9 @@
  */
 package com.tangosol.coherence.jsr107.processors;
 
-import com.tangosol.util.Binary;
-import com.tangosol.util.BinaryEntry;
 import com.tangosol.util.InvocableMap;
 
+import java.io.Serializable;
 import java.util.Map;
 import java.util.Set;
 
@@ -31,18 +30,17 @@ import java.util.Set;
  * @author ycosmado
  * @since 1.0
  */
-public class GetAndPutProcessor implements InvocableMap.EntryProcessor {
-    private final Binary value;
+public class GetAndPutProcessor implements InvocableMap.EntryProcessor, Serializable {
+    private final Object value;
 
-    public GetAndPutProcessor(Binary value) {
+    public GetAndPutProcessor(Object value) {
         this.value = value;
     }
 
     @Override
     public Object process(InvocableMap.Entry entry) {
-        BinaryEntry bEntry = (BinaryEntry) entry;
-        Binary oldValue = bEntry.isPresent() ? bEntry.getBinaryValue() : null;
-        bEntry.updateBinaryValue(value);
+        Object oldValue = EntryValues.isPresent(entry) ? EntryValues.getValue(entry) : null;
+        EntryValues.setValue(entry, value);
         return oldValue;
     }
 
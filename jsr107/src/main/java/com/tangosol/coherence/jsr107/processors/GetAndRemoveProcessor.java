@@ -20,10 +20,9 @@
  */
 package com.tangosol.coherence.jsr107.processors;
 
-import com.tangosol.util.Binary;
-import com.tangosol.util.BinaryEntry;
 import com.tangosol.util.InvocableMap;
 
+import java.io.Serializable;
 import java.util.Map;
 import java.util.Set;
 
@@ -31,13 +30,12 @@ import java.util.Set;
  * @author ycosmado
  * @since 1.0
  */
-public class GetAndRemoveProcessor implements InvocableMap.EntryProcessor  {
+public class GetAndRemoveProcessor implements InvocableMap.EntryProcessor, Serializable {
     @Override
     public Object process(InvocableMap.Entry entry) {
-        BinaryEntry bEntry = (BinaryEntry) entry;
-        if (bEntry.isPresent()) {
-            Binary oldValue = bEntry.getBinaryValue();
-            bEntry.remove(false);
+        if (EntryValues.isPresent(entry)) {
+            Object oldValue = EntryValues.getValue(entry);
+            entry.remove(false);
             return oldValue;
         } else {
             return null;
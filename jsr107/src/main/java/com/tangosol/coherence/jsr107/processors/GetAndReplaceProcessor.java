@@ -20,10 +20,9 @@
  */
 package com.tangosol.coherence.jsr107.processors;
 
-import com.tangosol.util.Binary;
-import com.tangosol.util.BinaryEntry;
 import com.tangosol.util.InvocableMap;
 
+import java.io.Serializable;
 import java.util.Map;
 import java.util.Set;
 
@@ -31,19 +30,18 @@ import java.util.Set;
  * @author ycosmado
  * @since 1.0
  */
-public class GetAndReplaceProcessor implements InvocableMap.EntryProcessor {
-    private final Binary value;
+public class GetAndReplaceProcessor implements InvocableMap.EntryProcessor, Serializable {
+    private final Object value;
 
-    public GetAndReplaceProcessor(Binary value) {
+    public GetAndReplaceProcessor(Object value) {
         this.value = value;
     }
 
     @Override
     public Object process(InvocableMap.Entry entry) {
-        BinaryEntry bEntry = (BinaryEntry) entry;
-        if (bEntry.isPresent()) {
-            Binary oldValue = bEntry.getBinaryValue();
-            bEntry.updateBinaryValue(value);
+        if (EntryValues.isPresent(entry)) {
+            Object oldValue = EntryValues.getValue(entry);
+            EntryValues.setValue(entry, value);
             return oldValue;
         } else {
             return null;
@@ -21,10 +21,10 @@
 package com.tangosol.coherence.jsr107.processors;
 
 import com.tangosol.net.GuardSupport;
-import com.tangosol.util.BinaryEntry;
 import com.tangosol.util.InvocableMap;
 import com.tangosol.util.LiteMap;
 
+import java.io.Serializable;
 import java.util.Map;
 import java.util.Set;
 
@@ -32,11 +32,10 @@ import java.util.Set;
  * @author ycosmado
  * @since 1.0
  */
-public class GetProcessor implements InvocableMap.EntryProcessor {
+public class GetProcessor implements InvocableMap.EntryProcessor, Serializable {
     @Override
     public Object process(InvocableMap.Entry entry) {
-        BinaryEntry bEntry = (BinaryEntry) entry;
-        return bEntry.isPresent() ? bEntry.getBinaryValue() : null;
+        return EntryValues.isPresent(entry) ? EntryValues.getValue(entry) : null;
     }
 
     @Override
@@ -45,14 +44,14 @@ public class GetProcessor implements InvocableMap.EntryProcessor {
         Map mapResults = new LiteMap();
         for (Object setEntry : setEntries) {
             GuardSupport.heartbeat();
-            BinaryEntry bEntry = (BinaryEntry) setEntry;
-            Object value = process(bEntry);
+            InvocableMap.Entry entry = (InvocableMap.Entry) setEntry;
+            Object value = process(entry);
             if (value != null) {
                 //TODO: the following never gets to the other side...
                 //TODO: The problem is if the key class is not on the server...
                 //TODO: also seems to force us to deserialize the key
                 //mapResults.put(bEntry.getBinaryKey(), value);
-                mapResults.put(bEntry.getKey(), value);
+                mapResults.put(entry.getKey(), value);
             }
         }
         return mapResults;
@@ -0,0 +1,209 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.processors;
+
+import com.tangosol.coherence.jsr107.LoaderLimits;
+import com.tangosol.net.GuardSupport;
+import com.tangosol.net.Guardian;
+
+import javax.cache.CacheException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces the {@link LoaderLimits} of a cache on a storage member: a
+ * semaphore bounds the loader calls running at once and a token bucket,
+ * holding up to a second's worth of calls, bounds their rate.
+ * <p/>
+ * A queued call waits in slices of at most a second, heartbeating the
+ * guardian of the worker thread between them, and never longer than the
+ * guardian's timeout, whatever the queue timeout of the limits.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+final class LoaderBulkhead {
+    private static final ConcurrentHashMap<String, LoaderBulkhead> BULKHEADS =
+        new ConcurrentHashMap<String, LoaderBulkhead>();
+    private static final long SLICE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final String cacheName;
+    private final LoaderLimits limits;
+    private final Semaphore concurrency;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    private LoaderBulkhead(String cacheName, LoaderLimits limits) {
+        this.cacheName = cacheName;
+        this.limits = limits;
+        this.concurrency = limits.getMaxConcurrent() > 0 ? new Semaphore(limits.getMaxConcurrent(), true) : null;
+        this.tokensPerNano = limits.getMaxPerSecond() / 1e9;
+        this.tokens = limits.getMaxPerSecond();
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * The bulkhead of a cache on this member, or null if the cache has no limits.
+     *
+     * @param cacheName the cache name
+     * @param limits    the limits of the cache
+     * @return the bulkhead
+     */
+    static LoaderBulkhead get(String cacheName, LoaderLimits limits) {
+        if (limits == null) {
+            return null;
+        }
+        LoaderBulkhead bulkhead = BULKHEADS.get(cacheName);
+        if (bulkhead == null || !bulkhead.limits.equals(limits)) {
+            // the cache was built again with other limits
+            LoaderBulkhead created = new LoaderBulkhead(cacheName, limits);
+            if (bulkhead == null) {
+                bulkhead = BULKHEADS.putIfAbsent(cacheName, created);
+                if (bulkhead == null) {
+                    bulkhead = created;
+                }
+            } else {
+                BULKHEADS.replace(cacheName, bulkhead, created);
+                bulkhead = BULKHEADS.get(cacheName);
+            }
+        }
+        return bulkhead;
+    }
+
+    /**
+     * Wait for or fail to get a place for a loader call, per the overflow policy.
+     * Every successful call must be followed by {@link #exit}.
+     *
+     * @throws CacheException if the call is beyond the limits
+     */
+    void enter() {
+        boolean queue = limits.getOverflowPolicy() == LoaderLimits.OverflowPolicy.QUEUE;
+        long deadline = System.nanoTime() + queueTimeoutNanos();
+        if (concurrency != null) {
+            boolean acquired;
+            try {
+                acquired = queue ? acquire(deadline) : concurrency.tryAcquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CacheException(e);
+            }
+            if (!acquired) {
+                throw new CacheException("Too many concurrent loads for cache " + cacheName);
+            }
+        }
+        try {
+            if (tokensPerNano > 0) {
+                long waitNanos = reserveToken(queue ? deadline - System.nanoTime() : 0);
+                if (waitNanos < 0) {
+                    throw new CacheException("Load rate limit reached for cache " + cacheName);
+                }
+                sleep(waitNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exit();
+            throw new CacheException(e);
+        } catch (RuntimeException e) {
+            exit();
+            throw e;
+        }
+    }
+
+    /**
+     * Give back the place of a loader call.
+     */
+    void exit() {
+        if (concurrency != null) {
+            concurrency.release();
+        }
+    }
+
+    /**
+     * The longest a queued call may wait: the queue timeout, capped at the
+     * timeout of the guardian of this thread, if any.
+     *
+     * @return the wait in nanoseconds
+     */
+    private long queueTimeoutNanos() {
+        long timeoutMillis = limits.getQueueTimeoutMillis();
+        Guardian.GuardContext context = GuardSupport.getThreadContext();
+        if (context != null && context.getTimeoutMillis() > 0) {
+            timeoutMillis = Math.min(timeoutMillis, context.getTimeoutMillis());
+        }
+        return TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    /**
+     * Wait for a permit until the deadline, heartbeating between slices.
+     *
+     * @param deadline the deadline, in {@link System#nanoTime} terms
+     * @return whether the permit was acquired
+     */
+    private boolean acquire(long deadline) throws InterruptedException {
+        while (true) {
+            long remaining = deadline - System.nanoTime();
+            if (concurrency.tryAcquire(Math.max(0, Math.min(remaining, SLICE_NANOS)), TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+            if (remaining <= SLICE_NANOS) {
+                return false;
+            }
+            GuardSupport.heartbeat();
+        }
+    }
+
+    /**
+     * Sleep, heartbeating between slices.
+     *
+     * @param nanos how long to sleep
+     */
+    private static void sleep(long nanos) throws InterruptedException {
+        long deadline = System.nanoTime() + nanos;
+        for (long remaining = nanos; remaining > 0; remaining = deadline - System.nanoTime()) {
+            TimeUnit.NANOSECONDS.sleep(Math.min(remaining, SLICE_NANOS));
+            GuardSupport.heartbeat();
+        }
+    }
+
+    /**
+     * Take a token, borrowing against the refill if allowed to wait.
+     *
+     * @param maxWaitNanos how long the caller may wait for the token
+     * @return how long to wait before the token is available, or -1 if longer than allowed
+     */
+    private synchronized long reserveToken(long maxWaitNanos) {
+        long now = System.nanoTime();
+        tokens = Math.min(limits.getMaxPerSecond(), tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        long waitNanos = (long) ((1 - tokens) / tokensPerNano);
+        if (waitNanos > maxWaitNanos) {
+            return -1;
+        }
+        tokens -= 1;
+        return waitNanos;
+    }
+}
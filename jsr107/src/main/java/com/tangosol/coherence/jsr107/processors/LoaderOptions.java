@@ -0,0 +1,84 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.processors;
+
+import com.tangosol.coherence.jsr107.LoaderLimits;
+
+import java.io.Serializable;
+
+/**
+ * How the storage members load and expire the entries of a read-through cache.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public class LoaderOptions implements Serializable {
+    private final String cacheName;
+    private final long timeToLiveMillis;
+    private final long refreshAheadMillis;
+    private final long negativeTimeToLiveMillis;
+    private final LoaderLimits limits;
+
+    /**
+     * @param cacheName                the name of the cache
+     * @param timeToLiveMillis         the time to live of a loaded entry, or 0 for no expiry
+     * @param refreshAheadMillis       how long before its expiry a read entry is reloaded, or 0 to not refresh
+     * @param negativeTimeToLiveMillis how long a key the loader could not load is remembered, or 0 to not
+     * @param limits                   the limits on loader calls on each storage member, or null for none
+     */
+    public LoaderOptions(String cacheName, long timeToLiveMillis, long refreshAheadMillis,
+                         long negativeTimeToLiveMillis, LoaderLimits limits) {
+        this.cacheName = cacheName;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.refreshAheadMillis = refreshAheadMillis;
+        this.negativeTimeToLiveMillis = negativeTimeToLiveMillis;
+        this.limits = limits;
+    }
+
+    public long getTimeToLiveMillis() {
+        return timeToLiveMillis;
+    }
+
+    public long getRefreshAheadMillis() {
+        return refreshAheadMillis;
+    }
+
+    public long getNegativeTimeToLiveMillis() {
+        return negativeTimeToLiveMillis;
+    }
+
+    public boolean isRefreshAhead() {
+        return timeToLiveMillis > 0 && refreshAheadMillis > 0;
+    }
+
+    public LoaderLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * The bulkhead enforcing the limits on this member.
+     *
+     * @return the bulkhead, or null if loader calls are not limited
+     */
+    LoaderBulkhead getBulkhead() {
+        return LoaderBulkhead.get(cacheName, limits);
+    }
+}
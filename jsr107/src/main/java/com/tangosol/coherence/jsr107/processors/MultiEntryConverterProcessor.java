@@ -0,0 +1,98 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.processors;
+
+import com.tangosol.coherence.jsr107.MultiEntryProcessor;
+import com.tangosol.coherence.jsr107.io.BinaryCodec;
+import com.tangosol.net.BackingMapContext;
+import com.tangosol.net.GuardSupport;
+import com.tangosol.util.Binary;
+import com.tangosol.util.BinaryEntry;
+import com.tangosol.util.Converter;
+import com.tangosol.util.InvocableMap;
+import com.tangosol.util.LiteMap;
+
+import javax.cache.Cache;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs a {@link MultiEntryProcessor} against the entry invoked against and the
+ * entries of other keys in its partition.
+ * <p/>
+ * The other entries are enlisted from the backing map context, which locks
+ * them for the invocation and commits their updates with those of the invoked
+ * entry.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public class MultiEntryConverterProcessor<K, V> implements InvocableMap.EntryProcessor, Serializable {
+    private final Set<K> keys;
+    private final MultiEntryProcessor<K, V> processor;
+    private final BinaryCodec codec;
+    private final boolean byReference;
+
+    /**
+     * @param keys        the keys to enlist besides the one invoked against
+     * @param processor   the processor
+     * @param codec       the value codec, or null to use the cache service's converters
+     * @param byReference whether a local cache stores the value objects themselves
+     */
+    public MultiEntryConverterProcessor(Set<K> keys, MultiEntryProcessor<K, V> processor, BinaryCodec codec,
+                                        boolean byReference) {
+        this.keys = keys;
+        this.processor = processor;
+        this.codec = codec;
+        this.byReference = byReference;
+    }
+
+    @Override
+    public Object process(InvocableMap.Entry entry) {
+        BinaryEntry binaryEntry = (BinaryEntry) entry;
+        BackingMapContext backingMapContext = binaryEntry.getBackingMapContext();
+        Converter keyToInternal = binaryEntry.getContext().getKeyToInternalConverter();
+
+        Map<K, Cache.MutableEntry<K, V>> entries = new LinkedHashMap<K, Cache.MutableEntry<K, V>>();
+        entries.put((K) entry.getKey(), new ConverterProcessor.ConverterEntry<K, V>(entry, codec, byReference));
+        for (K key : keys) {
+            if (!entries.containsKey(key)) {
+                InvocableMap.Entry enlisted = backingMapContext.getBackingMapEntry((Binary) keyToInternal.convert(key));
+                entries.put(key, new ConverterProcessor.ConverterEntry<K, V>(enlisted, codec, byReference));
+            }
+        }
+        return processor.process(Collections.unmodifiableMap(entries));
+    }
+
+    @Override
+    public Map processAll(Set set) {
+        Map<Object, Object> results = new LiteMap();
+        for (Object o : set) {
+            GuardSupport.heartbeat();
+            InvocableMap.Entry entry = (InvocableMap.Entry) o;
+            results.put(entry.getKey(), process(entry));
+        }
+        return results;
+    }
+}
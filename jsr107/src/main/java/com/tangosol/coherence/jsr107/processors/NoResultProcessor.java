@@ -0,0 +1,60 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.processors;
+
+import com.tangosol.net.GuardSupport;
+import com.tangosol.util.InvocableMap;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs another processor against every entry and discards its results, so
+ * a storage member answers a bulk invocation with an empty map, or with the
+ * exception that failed it.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public class NoResultProcessor implements InvocableMap.EntryProcessor, Serializable {
+    private final InvocableMap.EntryProcessor processor;
+
+    public NoResultProcessor(InvocableMap.EntryProcessor processor) {
+        this.processor = processor;
+    }
+
+    @Override
+    public Object process(InvocableMap.Entry entry) {
+        processor.process(entry);
+        return null;
+    }
+
+    @Override
+    public Map processAll(Set setEntries) {
+        for (Object entry : setEntries) {
+            GuardSupport.heartbeat();
+            processor.process((InvocableMap.Entry) entry);
+        }
+        return Collections.emptyMap();
+    }
+}
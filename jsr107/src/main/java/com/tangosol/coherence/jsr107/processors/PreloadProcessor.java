@@ -0,0 +1,123 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.processors;
+
+import com.tangosol.coherence.jsr107.io.BinaryCodec;
+import com.tangosol.util.BinaryEntry;
+import com.tangosol.util.InvocableMap;
+import com.tangosol.util.processor.AbstractProcessor;
+
+import javax.cache.CacheLoader;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads the absent entries of a set with a single {@link CacheLoader#loadAll}
+ * call on each storage member.
+ * <p/>
+ * The result of {@link #processAll} is the number of entries loaded, reported
+ * against one of the loaded keys so the caller gets one result per member
+ * rather than one per key.
+ * <p/>
+ * Loaded values are stored in the same form as values put by the client and
+ * expire after the cache's time to live, as those loaded on a read miss do.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public class PreloadProcessor<K, V> extends AbstractProcessor implements Serializable {
+    private final CacheLoader<K, ? extends V> cacheLoader;
+    private final BinaryCodec codec;
+    private final boolean byReference;
+    private final LoaderOptions options;
+
+    /**
+     * @param cacheLoader the cache loader
+     * @param codec       the value codec, or null to use the cache service's converters
+     * @param byReference whether a local cache stores the value objects themselves
+     * @param options     how entries are loaded and expired
+     */
+    public PreloadProcessor(CacheLoader<K, ? extends V> cacheLoader, BinaryCodec codec, boolean byReference,
+                            LoaderOptions options) {
+        this.cacheLoader = cacheLoader;
+        this.codec = codec;
+        this.byReference = byReference;
+        this.options = options;
+    }
+
+    @Override
+    public Object process(InvocableMap.Entry entry) {
+        Map result = processAll(Collections.singleton(entry));
+        return result.isEmpty() ? 0 : result.values().iterator().next();
+    }
+
+    @Override
+    public Map processAll(Set setEntries) {
+        Map<K, InvocableMap.Entry> absent = new HashMap<K, InvocableMap.Entry>();
+        for (Object o : setEntries) {
+            InvocableMap.Entry entry = (InvocableMap.Entry) o;
+            if (!EntryValues.isPresent(entry)) {
+                absent.put((K) entry.getKey(), entry);
+            }
+        }
+        if (absent.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<K> keys = new ArrayList<K>(absent.keySet());
+        Map<K, ? extends V> loaded = loadAll(keys);
+        Object firstKey = null;
+        int count = 0;
+        for (Map.Entry<K, ? extends V> loadedEntry : loaded.entrySet()) {
+            InvocableMap.Entry entry = absent.get(loadedEntry.getKey());
+            V value = loadedEntry.getValue();
+            if (entry == null || value == null) {
+                continue;
+            }
+            EntryValues.setValue(entry, EntryValues.toInternal(entry, value, codec, byReference));
+            if (options.getTimeToLiveMillis() > 0 && entry instanceof BinaryEntry) {
+                ((BinaryEntry) entry).expire(options.getTimeToLiveMillis());
+            }
+            if (firstKey == null) {
+                firstKey = entry.getKey();
+            }
+            count++;
+        }
+        return firstKey == null ? Collections.emptyMap() : Collections.singletonMap(firstKey, count);
+    }
+
+    private Map<K, ? extends V> loadAll(List<K> keys) {
+        LoaderBulkhead bulkhead = options.getBulkhead();
+        if (bulkhead == null) {
+            return cacheLoader.loadAll(keys);
+        }
+        bulkhead.enter();
+        try {
+            return cacheLoader.loadAll(keys);
+        } finally {
+            bulkhead.exit();
+        }
+    }
+}
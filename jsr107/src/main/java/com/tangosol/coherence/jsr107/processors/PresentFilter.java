@@ -20,35 +20,28 @@
  */
 package com.tangosol.coherence.jsr107.processors;
 
-import com.tangosol.util.Binary;
-import com.tangosol.util.BinaryEntry;
 import com.tangosol.util.InvocableMap;
-import com.tangosol.util.ObservableMap;
+import com.tangosol.util.filter.EntryFilter;
 
+import java.io.Serializable;
 import java.util.Map;
-import java.util.Set;
 
 /**
+ * Matches the entries holding a value, leaving out negative markers.
+ *
  * @author ycosmado
  * @since 1.0
  */
-public class PutAllProcessor implements InvocableMap.EntryProcessor {
-    private final Map<Binary, Binary> value; 
-
-    public PutAllProcessor(Map<Binary, Binary> value) {
-        this.value = value;
-    }
+public class PresentFilter implements EntryFilter, Serializable {
 
     @Override
-    public Object process(InvocableMap.Entry entry) {
-        BinaryEntry bEntry = (BinaryEntry) entry;
-        ObservableMap backingMap = bEntry.getBackingMap();
-        backingMap.putAll(value);
-        return null;
+    public boolean evaluateEntry(Map.Entry entry) {
+        return !(entry instanceof InvocableMap.Entry)
+            || EntryValues.isPresent((InvocableMap.Entry) entry);
     }
 
     @Override
-    public Map processAll(Set setEntries) {
-        throw new UnsupportedOperationException();
+    public boolean evaluate(Object o) {
+        return !EntryValues.NEGATIVE.equals(o);
     }
 }
@@ -20,24 +20,54 @@
  */
 package com.tangosol.coherence.jsr107.processors;
 
+import com.tangosol.coherence.jsr107.MultiEntryProcessor;
+import com.tangosol.coherence.jsr107.io.BinaryCodec;
+import com.tangosol.net.BackingMapManager;
 import com.tangosol.net.BackingMapManagerContext;
 import com.tangosol.net.NamedCache;
 import com.tangosol.util.Binary;
+import com.tangosol.util.Filter;
 import com.tangosol.util.InvocableMap;
+import com.tangosol.util.ValueExtractor;
 
+import javax.cache.Cache;
 import javax.cache.CacheLoader;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author ycosmado
  * @since 1.0
  */
 public class ProcessorFactory<K, V> {
+    private static final int KEY_CACHE_STRIPES = 16;
+    private static final int KEY_CACHE_STRIPE_LIMIT = 256;
     private final BackingMapManagerContext context;
-
-    public ProcessorFactory(NamedCache namedCache) {
-        this.context = namedCache.getCacheService().getBackingMapManager().getContext();
+    private final BinaryCodec codec;
+    private final ClassLoader classLoader;
+    private final boolean byReference;
+    private final LoaderOptions loaderOptions;
+    private final Map<Object, Binary>[] keyCaches = createKeyCaches();
+
+    /**
+     * @param namedCache  the cache the processors are invoked against
+     * @param codec       the value codec, or null to use the cache service's converters
+     * @param classLoader the class loader of the cache
+     * @param byReference whether processors carry the value objects themselves rather
+     *                    than their Binary form; only meaningful for local caches
+     * @param loaderOptions how entries are loaded and expired by read-through
+     */
+    public ProcessorFactory(NamedCache namedCache, BinaryCodec codec, ClassLoader classLoader, boolean byReference,
+                            LoaderOptions loaderOptions) {
+        BackingMapManager manager = namedCache.getCacheService().getBackingMapManager();
+        this.context = manager == null ? null : manager.getContext();
+        this.codec = codec;
+        this.classLoader = classLoader;
+        this.byReference = byReference;
+        this.loaderOptions = loaderOptions;
     }
 
     public InvocableMap.EntryProcessor getGetProcessor() {
@@ -49,15 +79,15 @@ public class ProcessorFactory<K, V> {
     }
 
     public InvocableMap.EntryProcessor getPutProcessor(V value) {
-        return new PutProcessor(valueToBinary(value));
+        return new PutProcessor(valueToInternal(value));
     }
 
     public InvocableMap.EntryProcessor getGetAndPutProcessor(V value) {
-        return new GetAndPutProcessor(valueToBinary(value));
+        return new GetAndPutProcessor(valueToInternal(value));
     }
 
     public InvocableMap.EntryProcessor getPutIfAbsentProcessor(V value) {
-        return new PutIfAbsentProcessor(valueToBinary(value));
+        return new PutIfAbsentProcessor(valueToInternal(value));
     }
 
     public InvocableMap.EntryProcessor getRemoveProcessor() {
@@ -65,7 +95,7 @@ public class ProcessorFactory<K, V> {
     }
 
     public InvocableMap.EntryProcessor getRemove2Processor(V value) {
-        return new Remove2Processor(valueToBinary(value));
+        return new Remove2Processor(valueToInternal(value));
     }
 
     public InvocableMap.EntryProcessor getGetAndRemoveProcessor() {
@@ -73,38 +103,117 @@ public class ProcessorFactory<K, V> {
     }
 
     public InvocableMap.EntryProcessor getReplace3Processor(V oldValue, V newValue) {
-        return new Replace3Processor(valueToBinary(oldValue), valueToBinary(newValue));
+        return new Replace3Processor(valueToInternal(oldValue), valueToInternal(newValue));
     }
 
     public InvocableMap.EntryProcessor getReplace2Processor(V value) {
-        return new Replace2Processor(valueToBinary(value));
+        return new Replace2Processor(valueToInternal(value));
     }
 
     public InvocableMap.EntryProcessor getGetAndReplaceProcessor(V value) {
-        return new GetAndReplaceProcessor(valueToBinary(value));
+        return new GetAndReplaceProcessor(valueToInternal(value));
     }
 
-    public InvocableMap.EntryProcessor getPutAllProcessor(Map<Binary, Binary> map) {
-        return new PutAllProcessor(map);
+    public InvocableMap.EntryProcessor getBinaryPutProcessor(Map<Binary, Binary> map) {
+        return new BinaryPutProcessor(map, false);
     }
 
-    public InvocableMap.EntryProcessor getPutAllProcessor1(Map<K, V> map) {
-        Map<Binary, Binary> binaryMap = new HashMap<Binary, Binary>(map.size());
-        for (Map.Entry<K,V> entry : map.entrySet()) {
-            binaryMap.put(keyToBinary(entry.getKey()), valueToBinary(entry.getValue()));
-        }
-        return new PutAllProcessor(binaryMap);
+    public InvocableMap.EntryProcessor getBinaryPutIfAbsentProcessor(Map<Binary, Binary> map) {
+        return new BinaryPutProcessor(map, true);
     }
 
     public InvocableMap.EntryProcessor getCacheLoaderProcessor(InvocableMap.EntryProcessor processor, CacheLoader<K, ? extends V> cacheLoader) {
-        return new CacheLoaderProcessor<K, V>(processor, cacheLoader);
+        return new CacheLoaderProcessor<K, V>(processor, cacheLoader, codec, loaderOptions);
+    }
+
+    public InvocableMap.EntryProcessor getPreloadProcessor(CacheLoader<K, ? extends V> cacheLoader) {
+        return new PreloadProcessor<K, V>(cacheLoader, codec, byReference, loaderOptions);
+    }
+
+    public InvocableMap.EntryProcessor getNoResultProcessor(InvocableMap.EntryProcessor processor) {
+        return new NoResultProcessor(processor);
+    }
+
+    public InvocableMap.EntryProcessor getTruncateProcessor() {
+        return new TruncateProcessor();
+    }
+
+    public Filter getPresentFilter() {
+        return new PresentFilter();
+    }
+
+    /**
+     * The extractor to query and index the cache with in place of the given one.
+     * It is only wrapped when the values are not readable as they are stored.
+     */
+    public ValueExtractor getValueExtractor(ValueExtractor extractor) {
+        return codec == null && loaderOptions.getNegativeTimeToLiveMillis() == 0 ?
+            extractor :
+            new CacheValueExtractor(extractor, codec);
+    }
+
+    public InvocableMap.EntryAggregator getTopNAggregator(ValueExtractor extractor, Comparator comparator,
+                                                          int offset, int limit) {
+        return new TopNAggregator(getValueExtractor(extractor), comparator, offset, limit);
+    }
+
+    public InvocableMap.EntryAggregator getSnapshotAggregator() {
+        return new SnapshotAggregator();
+    }
+
+    public InvocableMap.EntryProcessor getConverterProcessor(Cache.EntryProcessor<K, V> entryProcessor) {
+        return new ConverterProcessor<K, V>(entryProcessor, codec, byReference);
+    }
+
+    public InvocableMap.EntryProcessor getMultiEntryProcessor(Set<K> keys, MultiEntryProcessor<K, V> processor) {
+        return new MultiEntryConverterProcessor<K, V>(keys, processor, codec, byReference);
     }
 
-    private Binary valueToBinary(V o) {
-        return (Binary)context.getValueToInternalConverter().convert(o);
+    private Object valueToInternal(V o) {
+        return byReference ? o : valueToBinary(o);
     }
 
-    private Binary keyToBinary(K o) {
-        return (Binary)context.getKeyToInternalConverter().convert(o);
+    public Binary valueToBinary(V o) {
+        return codec == null ?
+            (Binary) context.getValueToInternalConverter().convert(o) :
+            codec.toBinary(o, classLoader);
+    }
+
+    /**
+     * Convert a key to the service's Binary form.
+     * <p/>
+     * The Binary form of immutable keys is remembered, so hot keys are only
+     * converted once. The cache is split into stripes, each locked on its own
+     * and evicting its least recently used key when full.
+     */
+    public Binary keyToBinary(K o) {
+        if (!(o instanceof Long || o instanceof Integer || o instanceof String)) {
+            return (Binary) context.getKeyToInternalConverter().convert(o);
+        }
+        Map<Object, Binary> keyCache = keyCaches[(o.hashCode() & 0x7FFFFFFF) % KEY_CACHE_STRIPES];
+        Binary binary;
+        synchronized (keyCache) {
+            binary = keyCache.get(o);
+        }
+        if (binary == null) {
+            binary = (Binary) context.getKeyToInternalConverter().convert(o);
+            synchronized (keyCache) {
+                keyCache.put(o, binary);
+            }
+        }
+        return binary;
+    }
+
+    private static Map<Object, Binary>[] createKeyCaches() {
+        Map<Object, Binary>[] caches = new Map[KEY_CACHE_STRIPES];
+        for (int i = 0; i < caches.length; i++) {
+            caches[i] = new LinkedHashMap<Object, Binary>(KEY_CACHE_STRIPE_LIMIT * 2, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, Binary> eldest) {
+                    return size() > KEY_CACHE_STRIPE_LIMIT;
+                }
+            };
+        }
+        return caches;
     }
 }
@@ -20,10 +20,9 @@
  */
 package com.tangosol.coherence.jsr107.processors;
 
-import com.tangosol.util.Binary;
-import com.tangosol.util.BinaryEntry;
 import com.tangosol.util.InvocableMap;
 
+import java.io.Serializable;
 import java.util.Map;
 import java.util.Set;
 
@@ -31,18 +30,17 @@ import java.util.Set;
  * @author ycosmado
  * @since 1.0
  */
-public class PutIfAbsentProcessor implements InvocableMap.EntryProcessor {
-    private final Binary value;
+public class PutIfAbsentProcessor implements InvocableMap.EntryProcessor, Serializable {
+    private final Object value;
 
-    public PutIfAbsentProcessor(Binary value) {
+    public PutIfAbsentProcessor(Object value) {
         this.value = value;
     }
 
     @Override
     public Object process(InvocableMap.Entry entry) {
-        BinaryEntry bEntry = (BinaryEntry) entry;
-        if (!bEntry.isPresent()) {
-            bEntry.updateBinaryValue(value);
+        if (!EntryValues.isPresent(entry)) {
+            EntryValues.setValue(entry, value);
             return Boolean.TRUE;
         }
         return Boolean.FALSE;
@@ -20,10 +20,9 @@
  */
 package com.tangosol.coherence.jsr107.processors;
 
-import com.tangosol.util.Binary;
-import com.tangosol.util.BinaryEntry;
 import com.tangosol.util.InvocableMap;
 
+import java.io.Serializable;
 import java.util.Map;
 import java.util.Set;
 
@@ -31,17 +30,16 @@ import java.util.Set;
  * @author ycosmado
  * @since 1.0
  */
-public class PutProcessor implements InvocableMap.EntryProcessor {
-    private final Binary value;
+public class PutProcessor implements InvocableMap.EntryProcessor, Serializable {
+    private final Object value;
 
-    public PutProcessor(Binary value) {
+    public PutProcessor(Object value) {
         this.value = value;
     }
 
     @Override
     public Object process(InvocableMap.Entry entry) {
-        BinaryEntry bEntry = (BinaryEntry) entry;
-        bEntry.updateBinaryValue(value);
+        EntryValues.setValue(entry, value);
         return null;
     }
 
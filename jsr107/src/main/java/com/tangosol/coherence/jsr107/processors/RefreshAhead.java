@@ -0,0 +1,207 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.processors;
+
+import com.tangosol.coherence.jsr107.io.BinaryCodec;
+import com.tangosol.io.Serializer;
+import com.tangosol.net.CacheService;
+import com.tangosol.net.cache.ConfigurableCacheMap;
+import com.tangosol.util.Base;
+import com.tangosol.util.Binary;
+import com.tangosol.util.BinaryEntry;
+import com.tangosol.util.ExternalizableHelper;
+import com.tangosol.util.InvocableMap;
+import com.tangosol.util.ObservableMap;
+
+import javax.cache.Cache;
+import javax.cache.CacheLoader;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reloads entries on a storage member in the background when they are read
+ * close to their expiry, so that hot entries are replaced before they expire.
+ * <p/>
+ * A key is refreshed at most once at a time. The reloaded value replaces the
+ * entry only if the entry still holds the value it was read with, so a
+ * newer write is never overwritten.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+final class RefreshAhead {
+    private static final Logger LOGGER = Logger.getLogger("javax.cache");
+    private static final int MAX_QUEUED = 1024;
+
+    private static final ConcurrentHashMap<List<Object>, Boolean> REFRESHING = new ConcurrentHashMap<List<Object>, Boolean>();
+    // a bounded queue only grows the pool past its core size once full, so the core is the whole pool
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
+        Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().availableProcessors(), 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<Runnable>(MAX_QUEUED), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "CoherenceCache-refresh-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+    static {
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private RefreshAhead() {
+    }
+
+    /**
+     * Schedule a reload of the entry if it expires within the refresh-ahead time.
+     *
+     * @param entry       the entry just read
+     * @param cacheLoader the loader
+     * @param codec       the value codec, or null to use the service's serializer
+     * @param options     the loader options
+     */
+    static <K> void refreshIfDue(BinaryEntry entry, CacheLoader<K, ?> cacheLoader, BinaryCodec codec,
+                                 LoaderOptions options) {
+        ObservableMap backingMap = entry.getBackingMap();
+        if (!(backingMap instanceof ConfigurableCacheMap)) {
+            return;
+        }
+        ConfigurableCacheMap.Entry cacheEntry = ((ConfigurableCacheMap) backingMap).getCacheEntry(entry.getBinaryKey());
+        if (cacheEntry == null || cacheEntry.getExpiryMillis() == 0
+            || cacheEntry.getExpiryMillis() - Base.getSafeTimeMillis() > options.getRefreshAheadMillis()) {
+            return;
+        }
+        String cacheName = entry.getBackingMapContext().getCacheName();
+        List<Object> refreshKey = Arrays.<Object>asList(cacheName, entry.getBinaryKey());
+        if (REFRESHING.putIfAbsent(refreshKey, Boolean.TRUE) != null) {
+            return;
+        }
+        try {
+            EXECUTOR.execute(new Refresh<K>(refreshKey, entry, cacheLoader, codec, options));
+        } catch (RejectedExecutionException e) {
+            // the member is already busy refreshing, the entry will be loaded when it expires
+            REFRESHING.remove(refreshKey);
+        }
+    }
+
+    private static class Refresh<K> implements Runnable {
+        private final List<Object> refreshKey;
+        private final CacheService service;
+        private final String cacheName;
+        private final ClassLoader classLoader;
+        private final K key;
+        private final Binary expected;
+        private final CacheLoader<K, ?> cacheLoader;
+        private final BinaryCodec codec;
+        private final LoaderOptions options;
+        private final Serializer serializer;
+
+        Refresh(List<Object> refreshKey, BinaryEntry entry, CacheLoader<K, ?> cacheLoader, BinaryCodec codec,
+                LoaderOptions options) {
+            this.refreshKey = refreshKey;
+            this.serializer = entry.getSerializer();
+            this.service = entry.getContext().getCacheService();
+            this.cacheName = entry.getBackingMapContext().getCacheName();
+            this.classLoader = entry.getContext().getClassLoader();
+            this.key = (K) entry.getKey();
+            this.expected = entry.getBinaryValue();
+            this.cacheLoader = cacheLoader;
+            this.codec = codec;
+            this.options = options;
+        }
+
+        @Override
+        public void run() {
+            LoaderBulkhead bulkhead = options.getBulkhead();
+            try {
+                if (bulkhead != null) {
+                    bulkhead.enter();
+                }
+                Cache.Entry<K, ?> loaded;
+                try {
+                    loaded = cacheLoader.load(key);
+                } finally {
+                    if (bulkhead != null) {
+                        bulkhead.exit();
+                    }
+                }
+                if (loaded == null || loaded.getValue() == null) {
+                    return;
+                }
+                Binary value = codec == null ?
+                    ExternalizableHelper.toBinary(loaded.getValue(), serializer) :
+                    codec.toBinary(loaded.getValue(), classLoader);
+                service.ensureCache(cacheName, classLoader).invoke(key,
+                    new RefreshProcessor(expected, value, options.getTimeToLiveMillis()));
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Error refreshing " + key + " of cache " + cacheName, e);
+            } finally {
+                REFRESHING.remove(refreshKey);
+            }
+        }
+    }
+
+    /**
+     * Replaces the value of an entry still holding the expected value; an entry
+     * removed or replaced since the refresh began is left alone.
+     */
+    static class RefreshProcessor implements InvocableMap.EntryProcessor, Serializable {
+        private final Binary expected;
+        private final Binary value;
+        private final long timeToLiveMillis;
+
+        RefreshProcessor(Binary expected, Binary value, long timeToLiveMillis) {
+            this.expected = expected;
+            this.value = value;
+            this.timeToLiveMillis = timeToLiveMillis;
+        }
+
+        @Override
+        public Object process(InvocableMap.Entry entry) {
+            BinaryEntry bEntry = (BinaryEntry) entry;
+            if (bEntry.isPresent() && expected.equals(bEntry.getBinaryValue())) {
+                bEntry.updateBinaryValue(value);
+                bEntry.expire(timeToLiveMillis);
+            }
+            return null;
+        }
+
+        @Override
+        public Map processAll(Set setEntries) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
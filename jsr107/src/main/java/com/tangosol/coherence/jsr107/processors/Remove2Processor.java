@@ -20,10 +20,9 @@
  */
 package com.tangosol.coherence.jsr107.processors;
 
-import com.tangosol.util.Binary;
-import com.tangosol.util.BinaryEntry;
 import com.tangosol.util.InvocableMap;
 
+import java.io.Serializable;
 import java.util.Map;
 import java.util.Set;
 
@@ -31,18 +30,17 @@ import java.util.Set;
  * @author ycosmado
  * @since 1.0
  */
-public class Remove2Processor implements InvocableMap.EntryProcessor {
-    private final Binary oldValue;
+public class Remove2Processor implements InvocableMap.EntryProcessor, Serializable {
+    private final Object oldValue;
 
-    public Remove2Processor(Binary oldValue) {
+    public Remove2Processor(Object oldValue) {
         this.oldValue = oldValue;
     }
 
     @Override
     public Object process(InvocableMap.Entry entry) {
-        BinaryEntry bEntry = (BinaryEntry) entry;
-        if (bEntry.isPresent() && bEntry.getBinaryValue().equals(oldValue)) {
-            bEntry.remove(false);
+        if (EntryValues.isPresent(entry) && EntryValues.getValue(entry).equals(oldValue)) {
+            entry.remove(false);
             return Boolean.TRUE;
         }
         return Boolean.FALSE;
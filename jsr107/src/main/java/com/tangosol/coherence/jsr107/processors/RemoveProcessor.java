@@ -23,6 +23,8 @@ package com.tangosol.coherence.jsr107.processors;
 import com.tangosol.net.GuardSupport;
 import com.tangosol.util.InvocableMap;
 
+import java.io.Serializable;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 
@@ -30,10 +32,10 @@ import java.util.Set;
  * @author ycosmado
  * @since 1.0
  */
-public class RemoveProcessor implements InvocableMap.EntryProcessor {
+public class RemoveProcessor implements InvocableMap.EntryProcessor, Serializable {
     @Override
     public Object process(InvocableMap.Entry entry) {
-        if (entry.isPresent()) {
+        if (EntryValues.isPresent(entry)) {
             entry.remove(false);
             return Boolean.TRUE;
         }
@@ -46,6 +48,6 @@ public class RemoveProcessor implements InvocableMap.EntryProcessor {
             GuardSupport.heartbeat();
             process((InvocableMap.Entry) entry);
         }
-        return null;
+        return Collections.emptyMap();
     }
 }
@@ -20,10 +20,9 @@
  */
 package com.tangosol.coherence.jsr107.processors;
 
-import com.tangosol.util.Binary;
-import com.tangosol.util.BinaryEntry;
 import com.tangosol.util.InvocableMap;
 
+import java.io.Serializable;
 import java.util.Map;
 import java.util.Set;
 
@@ -31,20 +30,19 @@ import java.util.Set;
  * @author ycosmado
  * @since 1.0
  */
-public class Replace3Processor implements InvocableMap.EntryProcessor {
-    private final Binary oldValue;
-    private final Binary newValue;
+public class Replace3Processor implements InvocableMap.EntryProcessor, Serializable {
+    private final Object oldValue;
+    private final Object newValue;
 
-    public Replace3Processor(Binary oldValue, Binary newValue) {
+    public Replace3Processor(Object oldValue, Object newValue) {
         this.oldValue = oldValue;
         this.newValue = newValue;
     }
 
     @Override
     public Object process(InvocableMap.Entry entry) {
-        BinaryEntry bEntry = (BinaryEntry) entry;
-        if (entry.isPresent() && bEntry.getBinaryValue().equals(oldValue)) {
-            bEntry.updateBinaryValue(newValue);
+        if (EntryValues.isPresent(entry) && EntryValues.getValue(entry).equals(oldValue)) {
+            EntryValues.setValue(entry, newValue);
             return Boolean.TRUE;
         }
         return Boolean.FALSE;
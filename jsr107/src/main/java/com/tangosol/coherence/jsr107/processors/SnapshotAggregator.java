@@ -0,0 +1,123 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.processors;
+
+import com.tangosol.io.ReadBuffer;
+import com.tangosol.io.WriteBuffer;
+import com.tangosol.util.Binary;
+import com.tangosol.util.BinaryEntry;
+import com.tangosol.util.BinaryWriteBuffer;
+import com.tangosol.util.InvocableMap;
+import com.tangosol.util.WrapperException;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collects the Binary keys and values of the entries it runs against into a
+ * single Binary, without deserializing anything:
+ * <pre>
+ *   int count, then count times: int key length, key bytes, int value length, value bytes
+ * </pre>
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public class SnapshotAggregator implements InvocableMap.ParallelAwareAggregator, Serializable {
+
+    @Override
+    public Object aggregate(Set setEntries) {
+        // negative markers expire and are not worth restoring
+        List<BinaryEntry> entries = new ArrayList<BinaryEntry>(setEntries.size());
+        long cb = 4;
+        for (Object o : setEntries) {
+            BinaryEntry entry = (BinaryEntry) o;
+            if (!EntryValues.isNegative(entry)) {
+                entries.add(entry);
+                cb += 8 + entry.getBinaryKey().length() + entry.getBinaryValue().length();
+            }
+        }
+        BinaryWriteBuffer buffer = new BinaryWriteBuffer(checkSize(cb));
+        WriteBuffer.BufferOutput out = buffer.getBufferOutput();
+        try {
+            out.writeInt(entries.size());
+            for (BinaryEntry entry : entries) {
+                write(out, entry.getBinaryKey());
+                write(out, entry.getBinaryValue());
+            }
+        } catch (IOException e) {
+            throw new WrapperException(e);
+        }
+        return buffer.toBinary();
+    }
+
+    @Override
+    public InvocableMap.EntryAggregator getParallelAggregator() {
+        return this;
+    }
+
+    @Override
+    public Object aggregateResults(Collection collResults) {
+        if (collResults.size() == 1) {
+            return collResults.iterator().next();
+        }
+        try {
+            int count = 0;
+            long cb = 4;
+            for (Object o : collResults) {
+                Binary part = (Binary) o;
+                count += part.getBufferInput().readInt();
+                cb += part.length() - 4;
+            }
+            BinaryWriteBuffer buffer = new BinaryWriteBuffer(checkSize(cb));
+            WriteBuffer.BufferOutput out = buffer.getBufferOutput();
+            out.writeInt(count);
+            for (Object o : collResults) {
+                Binary part = (Binary) o;
+                out.writeBuffer(part, 4, part.length() - 4);
+            }
+            return buffer.toBinary();
+        } catch (IOException e) {
+            throw new WrapperException(e);
+        }
+    }
+
+    /**
+     * A snapshot is a single Binary, and a snapshot file a single mapped buffer,
+     * both limited to 2GB.
+     */
+    private static int checkSize(long cb) {
+        if (cb > Integer.MAX_VALUE) {
+            throw new IllegalStateException("A snapshot of " + cb + " bytes exceeds the limit of "
+                + Integer.MAX_VALUE + " bytes per partition");
+        }
+        return (int) cb;
+    }
+
+    private static void write(WriteBuffer.BufferOutput out, ReadBuffer buffer) throws IOException {
+        out.writeInt(buffer.length());
+        out.writeBuffer(buffer);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.processors;
+
+import com.tangosol.util.InvocableMap;
+import com.tangosol.util.ValueExtractor;
+import com.tangosol.util.comparator.SafeComparator;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Selects a page of entries ordered by an extracted value.
+ * <p/>
+ * Each storage member keeps only the first offset + limit of its own entries,
+ * each as {key, extracted value}, and the partial lists are merged on the
+ * caller, which drops the first offset. Only the keys of the page are
+ * returned, for the caller to fetch the values of no more entries than it
+ * needs.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public class TopNAggregator implements InvocableMap.ParallelAwareAggregator, Serializable {
+    private final ValueExtractor extractor;
+    private final Comparator comparator;
+    private final int offset;
+    private final int limit;
+    private final boolean partial;
+
+    /**
+     * @param extractor  the extractor of the value to order by
+     * @param comparator the order of the extracted values, or null for their natural order
+     * @param offset     the number of leading entries to skip
+     * @param limit      the greatest number of entries to return
+     */
+    public TopNAggregator(ValueExtractor extractor, Comparator comparator, int offset, int limit) {
+        if ((long) offset + limit > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("offset + limit must not exceed " + Integer.MAX_VALUE);
+        }
+        this.extractor = extractor;
+        this.comparator = new SafeComparator(comparator);
+        this.offset = offset;
+        this.limit = limit;
+        this.partial = false;
+    }
+
+    private TopNAggregator(TopNAggregator aggregator) {
+        this.extractor = aggregator.extractor;
+        this.comparator = aggregator.comparator;
+        this.offset = aggregator.offset;
+        this.limit = aggregator.limit;
+        this.partial = true;
+    }
+
+    @Override
+    public Object aggregate(Set setEntries) {
+        PriorityQueue<Object[]> top = createQueue();
+        for (Object o : setEntries) {
+            InvocableMap.Entry entry = (InvocableMap.Entry) o;
+            if (EntryValues.isPresent(entry)) {
+                offer(top, new Object[] {entry.getKey(), entry.extract(extractor)});
+            }
+        }
+        // a storage member's rows are merged by aggregateResults, a whole cache's make the page
+        return partial ? sorted(top) : page(sorted(top));
+    }
+
+    @Override
+    public InvocableMap.EntryAggregator getParallelAggregator() {
+        return new TopNAggregator(this);
+    }
+
+    @Override
+    public Object aggregateResults(Collection collResults) {
+        PriorityQueue<Object[]> top = createQueue();
+        for (Object o : collResults) {
+            for (Object[] row : (List<Object[]>) o) {
+                offer(top, row);
+            }
+        }
+        return page(sorted(top));
+    }
+
+    /**
+     * A queue headed by its greatest row, which is the one evicted when it overflows.
+     */
+    private PriorityQueue<Object[]> createQueue() {
+        return new PriorityQueue<Object[]>(Math.min(offset + limit, 1024) + 1,
+            Collections.reverseOrder(new RowComparator(comparator)));
+    }
+
+    private void offer(PriorityQueue<Object[]> top, Object[] row) {
+        top.add(row);
+        if (top.size() > offset + limit) {
+            top.poll();
+        }
+    }
+
+    /**
+     * The keys of the rows past the offset.
+     */
+    private List<Object> page(List<Object[]> sorted) {
+        List<Object> keys = new ArrayList<Object>(Math.max(0, sorted.size() - offset));
+        for (int i = offset; i < sorted.size(); i++) {
+            keys.add(sorted.get(i)[0]);
+        }
+        return keys;
+    }
+
+    private List<Object[]> sorted(PriorityQueue<Object[]> top) {
+        List<Object[]> sorted = new ArrayList<Object[]>(top);
+        Collections.sort(sorted, new RowComparator(comparator));
+        return sorted;
+    }
+
+    private static class RowComparator implements Comparator<Object[]>, Serializable {
+        private final Comparator comparator;
+
+        RowComparator(Comparator comparator) {
+            this.comparator = comparator;
+        }
+
+        @Override
+        public int compare(Object[] row1, Object[] row2) {
+            return comparator.compare(row1[1], row2[1]);
+        }
+    }
+}
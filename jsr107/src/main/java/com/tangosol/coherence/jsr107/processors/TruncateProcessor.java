@@ -0,0 +1,61 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.processors;
+
+import com.tangosol.net.GuardSupport;
+import com.tangosol.util.InvocableMap;
+import com.tangosol.util.processor.AbstractProcessor;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Removes every entry it is given and returns no result.
+ * <p/>
+ * Coherence 3.7.1 has no primitive that drops a partition's entries at once,
+ * so this is still O(n) in the entries, each removed through its entry and
+ * backed up. The removals are synthetic, so listeners see them as evictions
+ * and a cache store is not asked to erase the entries one by one.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public class TruncateProcessor extends AbstractProcessor implements Serializable {
+
+    @Override
+    public Object process(InvocableMap.Entry entry) {
+        if (entry.isPresent()) {
+            entry.remove(true);
+        }
+        return null;
+    }
+
+    @Override
+    public Map processAll(Set setEntries) {
+        for (Object o : setEntries) {
+            GuardSupport.heartbeat();
+            process((InvocableMap.Entry) o);
+        }
+        return Collections.emptyMap();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107;
+
+import com.tangosol.util.Converter;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * @author ycosmado
+ * @since 1.0
+ */
+public class BinaryValueMapTest {
+
+    @Test
+    public void testDecodesOnFirstRead() {
+        CountingDecoder decoder = new CountingDecoder();
+        BinaryValueMap<Integer, String> map = new BinaryValueMap<Integer, String>(encoded(3), decoder);
+        assertEquals(0, decoder.calls.get());
+        String value = map.get(1);
+        assertEquals("value1", value);
+        assertSame(value, map.get(1));
+        assertEquals(1, decoder.calls.get());
+    }
+
+    @Test
+    public void testMissingKey() {
+        CountingDecoder decoder = new CountingDecoder();
+        BinaryValueMap<Integer, String> map = new BinaryValueMap<Integer, String>(encoded(3), decoder);
+        assertNull(map.get(7));
+        assertFalse(map.containsKey(7));
+        assertEquals(0, decoder.calls.get());
+    }
+
+    @Test
+    public void testDecodeAllSkipsReadValues() {
+        CountingDecoder decoder = new CountingDecoder();
+        BinaryValueMap<Integer, String> map = new BinaryValueMap<Integer, String>(encoded(10), decoder);
+        map.get(1);
+        map.decodeAll();
+        assertEquals(10, decoder.calls.get());
+        map.decodeAll();
+        assertEquals(10, decoder.calls.get());
+    }
+
+    @Test
+    public void testDecodeAllInParallel() {
+        CountingDecoder decoder = new CountingDecoder();
+        BinaryValueMap<Integer, String> map = new BinaryValueMap<Integer, String>(encoded(2000), decoder);
+        map.decodeAll();
+        assertEquals(2000, decoder.calls.get());
+        for (int i = 0; i < 2000; i++) {
+            assertEquals("value" + i, map.get(i));
+        }
+        assertEquals(2000, decoder.calls.get());
+    }
+
+    @Test
+    public void testDecodeAllRethrows() {
+        final RuntimeException failure = new IllegalStateException();
+        BinaryValueMap<Integer, String> map = new BinaryValueMap<Integer, String>(encoded(2000), new Converter() {
+            @Override
+            public Object convert(Object o) {
+                if ("encoded1000".equals(o)) {
+                    throw failure;
+                }
+                return o;
+            }
+        });
+        try {
+            map.decodeAll();
+            fail();
+        } catch (IllegalStateException e) {
+            assertSame(failure, e);
+        }
+    }
+
+    @Test
+    public void testEntrySet() {
+        BinaryValueMap<Integer, String> map = new BinaryValueMap<Integer, String>(encoded(5), new CountingDecoder());
+        Map<Integer, String> copy = new HashMap<Integer, String>(map);
+        assertEquals(5, copy.size());
+        assertEquals("value4", copy.get(4));
+        assertEquals(copy, map);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnly() {
+        BinaryValueMap<Integer, String> map = new BinaryValueMap<Integer, String>(encoded(1), new CountingDecoder());
+        Iterator<Map.Entry<Integer, String>> entries = map.entrySet().iterator();
+        entries.next();
+        entries.remove();
+    }
+
+    private static Map<Integer, Object> encoded(int size) {
+        Map<Integer, Object> map = new ConcurrentHashMap<Integer, Object>();
+        for (int i = 0; i < size; i++) {
+            map.put(i, "encoded" + i);
+        }
+        return map;
+    }
+
+    private static class CountingDecoder implements Converter {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public Object convert(Object o) {
+            calls.incrementAndGet();
+            return ((String) o).replace("encoded", "value");
+        }
+    }
+}
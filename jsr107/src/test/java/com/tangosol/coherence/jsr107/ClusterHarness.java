@@ -0,0 +1,160 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107;
+
+import com.tangosol.net.CacheFactory;
+import com.tangosol.net.CacheService;
+import com.tangosol.net.PartitionedService;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A loopback cluster for multi-member tests and benchmarks.
+ * <p/>
+ * The JVM running the test is always the first storage enabled member; every
+ * further member is a {@link com.tangosol.net.DefaultCacheServer} started as a
+ * child process with the same class path, so it picks up the single server
+ * settings from tangosol-coherence-override.xml. Coherence allows a single
+ * cluster member per class loader, hence the child processes.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public class ClusterHarness {
+    private static final long JOIN_TIMEOUT_MILLIS = 60000;
+    private static final long POLL_MILLIS = 250;
+
+    private final String clusterName;
+    private final List<Process> members = new ArrayList<Process>();
+
+    /**
+     * Create a harness for a cluster with the given name.
+     * <p/>
+     * Must be called before anything in this JVM joins a cluster.
+     *
+     * @param clusterName the cluster name, used to keep the harness away from other clusters
+     */
+    public ClusterHarness(String clusterName) {
+        this.clusterName = clusterName;
+        System.setProperty("tangosol.coherence.cluster", clusterName);
+        System.setProperty("tangosol.coherence.localhost", "127.0.0.1");
+        System.setProperty("tangosol.coherence.ttl", "0");
+        System.setProperty("tangosol.coherence.distributed.localstorage", "true");
+    }
+
+    /**
+     * Grow the cluster to the given number of storage enabled members, including
+     * this JVM, and wait until every one of them owns partitions of the service.
+     *
+     * @param memberCount the total number of members
+     * @param service     the partitioned service the members must join
+     */
+    public void ensureMembers(int memberCount, CacheService service) throws IOException, InterruptedException {
+        if (memberCount < 1) {
+            throw new IllegalArgumentException("memberCount");
+        }
+        while (getMemberCount() < memberCount) {
+            members.add(startMember(getMemberCount() + 1));
+        }
+        waitForOwnership(memberCount, service);
+    }
+
+    /**
+     * The number of members in the cluster, including this JVM.
+     *
+     * @return the member count
+     */
+    public int getMemberCount() {
+        return members.size() + 1;
+    }
+
+    /**
+     * Stop every child member and leave the cluster.
+     */
+    public void shutdown() {
+        for (Process member : members) {
+            member.destroy();
+        }
+        members.clear();
+        CacheFactory.shutdown();
+    }
+
+    private Process startMember(int memberId) throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        ProcessBuilder builder = new ProcessBuilder(java,
+            "-Xmx256m",
+            "-cp", System.getProperty("java.class.path"),
+            "-Dtangosol.coherence.cluster=" + clusterName,
+            "-Dtangosol.coherence.member=" + clusterName + "-" + memberId,
+            "-Dtangosol.coherence.localhost=127.0.0.1",
+            "-Dtangosol.coherence.ttl=0",
+            "-Dtangosol.coherence.distributed.localstorage=true",
+            "-Dtangosol.coherence.log.level=3",
+            "com.tangosol.net.DefaultCacheServer");
+        builder.redirectErrorStream(true);
+        Process process = builder.start();
+        Thread drain = new Thread(new StreamDrain(process.getInputStream()), clusterName + "-" + memberId);
+        drain.setDaemon(true);
+        drain.start();
+        return process;
+    }
+
+    private void waitForOwnership(int memberCount, CacheService service) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + JOIN_TIMEOUT_MILLIS;
+        while (ownershipCount(service) < memberCount) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Timed out waiting for " + memberCount + " members, have "
+                    + ownershipCount(service));
+            }
+            Thread.sleep(POLL_MILLIS);
+        }
+    }
+
+    private static int ownershipCount(CacheService service) {
+        return service instanceof PartitionedService ?
+            ((PartitionedService) service).getOwnershipEnabledMembers().size() :
+            service.getInfo().getServiceMembers().size();
+    }
+
+    private static class StreamDrain implements Runnable {
+        private final InputStream in;
+
+        StreamDrain(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public void run() {
+            byte[] buffer = new byte[4096];
+            try {
+                while (in.read(buffer) >= 0) {
+                    // discard member output
+                }
+            } catch (IOException e) {
+                // member went away
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Checks the bytes allocated on the calling thread per cache call against the
+ * budgets in allocation-budget.properties. An operation without a recorded
+ * budget is skipped.
+ * <p/>
+ * Not picked up by the default surefire includes, as it starts a cluster
+ * member; run it explicitly with
+ * <pre>
+ *   mvn test -Dtest=CoherenceCacheAllocationBenchmark
+ * </pre>
+ * and add {@code -Dallocation.record=true} to print the measured figures in
+ * the format of the budget file instead of checking them.
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public class CoherenceCacheAllocationBenchmark {
+    private static final int WARMUP = 20000;
+    private static final int ITERATIONS = 20000;
+    private static final String VALUE = "value-0123456789";
+    private static final boolean RECORD = Boolean.getBoolean("allocation.record");
+
+    private static Properties budget;
+    private static CacheManager cacheManager;
+    private static com.sun.management.ThreadMXBean threadMXBean;
+
+    private Cache<Long, String> cache;
+    private Set<Long> keys;
+
+    @BeforeClass
+    public static void setUpClass() throws IOException {
+        ThreadMXBean mxBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(mxBean instanceof com.sun.management.ThreadMXBean);
+        threadMXBean = (com.sun.management.ThreadMXBean) mxBean;
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        budget = new Properties();
+        InputStream in = CoherenceCacheAllocationBenchmark.class.getResourceAsStream("/allocation-budget.properties");
+        assertNotNull("allocation-budget.properties", in);
+        try {
+            budget.load(in);
+        } finally {
+            in.close();
+        }
+        cacheManager = Caching.getCacheManager("allocation");
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        if (cacheManager != null) {
+            cacheManager.shutdown();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        cache = cacheManager.getCache("allocation");
+        if (cache == null) {
+            cache = cacheManager.<Long, String>createCacheBuilder("allocation").build();
+        }
+        int keyCount = Integer.parseInt(budget.getProperty("getAll.keys"));
+        keys = new HashSet<Long>();
+        for (long i = 0; i < keyCount; i++) {
+            keys.add(i);
+            cache.put(i, VALUE);
+        }
+    }
+
+    @Test
+    public void testGet() {
+        assertWithinBudget("get", new Runnable() {
+            private long i;
+
+            @Override
+            public void run() {
+                cache.get(i++ % keys.size());
+            }
+        });
+    }
+
+    @Test
+    public void testPut() {
+        assertWithinBudget("put", new Runnable() {
+            private long i;
+
+            @Override
+            public void run() {
+                cache.put(i++ % keys.size(), VALUE);
+            }
+        });
+    }
+
+    @Test
+    public void testContainsKey() {
+        assertWithinBudget("containsKey", new Runnable() {
+            private long i;
+
+            @Override
+            public void run() {
+                cache.containsKey(i++ % keys.size());
+            }
+        });
+    }
+
+    @Test
+    public void testGetAll() {
+        assertWithinBudget("getAll", new Runnable() {
+            @Override
+            public void run() {
+                cache.getAll(keys);
+            }
+        });
+    }
+
+    // Utilities --------------------------------------------------
+
+    private void assertWithinBudget(String operation, Runnable call) {
+        String recorded = budget.getProperty(operation);
+        assumeTrue(RECORD || recorded != null);
+        for (int i = 0; i < WARMUP; i++) {
+            call.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.run();
+        }
+        long perCall = (threadMXBean.getThreadAllocatedBytes(threadId) - before) / ITERATIONS;
+        if (RECORD) {
+            System.out.println(operation + "=" + perCall);
+            return;
+        }
+        long limit = Long.parseLong(recorded);
+        assertTrue(operation + " allocated " + perCall + " bytes per call, budget is " + limit,
+            perCall <= limit);
+    }
+}
@@ -25,7 +25,7 @@ import org.junit.Test;
 import javax.cache.OptionalFeature;
 import javax.cache.spi.CachingProvider;
 
-import static junit.framework.Assert.assertFalse;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 public class CoherenceCacheProviderTest {
@@ -41,7 +41,7 @@ public class CoherenceCacheProviderTest {
     public void testIsSupported() {
         CachingProvider cacheProvider = getCachingProvider();
         for (OptionalFeature feature: OptionalFeature.values()) {
-            assertFalse(cacheProvider.isSupported(feature));
+            assertEquals(feature == OptionalFeature.STORE_BY_REFERENCE, cacheProvider.isSupported(feature));
         }
     }
 
@@ -0,0 +1,182 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107;
+
+import com.tangosol.net.NamedCache;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.cache.Cache;
+import javax.cache.CacheLoader;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Measures how bulk operations, entry processors and read-through scale with
+ * the number of storage members.
+ * <p/>
+ * Not picked up by the default surefire includes; run it explicitly with
+ * <pre>
+ *   mvn test -Dtest=CoherenceCacheScalingBenchmark -Dbenchmark.members=1,2,4,8
+ * </pre>
+ *
+ * @author ycosmado
+ * @since 1.0
+ */
+public class CoherenceCacheScalingBenchmark {
+    private static final int ENTRY_COUNT = Integer.getInteger("benchmark.entries", 100000);
+    private static final int BATCH_SIZE = Integer.getInteger("benchmark.batch", 1000);
+    private static final int PROCESSOR_COUNT = Integer.getInteger("benchmark.invocations", 10000);
+    private static final int LOAD_COUNT = Integer.getInteger("benchmark.loads", 10000);
+    private static final String VALUE = "value-0123456789-0123456789-0123456789-0123456789";
+
+    private ClusterHarness harness;
+    private CacheManager cacheManager;
+
+    @Before
+    public void startCluster() {
+        harness = new ClusterHarness("jsr107-scaling-" + System.currentTimeMillis());
+        cacheManager = Caching.getCacheManager("scaling");
+    }
+
+    @After
+    public void stopCluster() {
+        cacheManager.shutdown();
+        harness.shutdown();
+    }
+
+    @Test
+    public void testScaling() throws Exception {
+        Cache<Integer, String> cache = cacheManager.<Integer, String>createCacheBuilder("scaling-bulk").build();
+        Cache<Integer, String> readThrough = cacheManager.<Integer, String>createCacheBuilder("scaling-read-through")
+            .setCacheLoader(new GeneratingCacheLoader()).build();
+
+        System.out.println("members\tputAll/s\tgetAll/s\tinvoke/s\tread-through/s");
+        for (int memberCount : getMemberCounts()) {
+            harness.ensureMembers(memberCount, cache.unwrap(NamedCache.class).getCacheService());
+            cache.removeAll();
+            readThrough.removeAll();
+
+            double putAll = measurePutAll(cache);
+            double getAll = measureGetAll(cache);
+            double invoke = measureInvoke(cache);
+            double load = measureReadThrough(readThrough);
+            System.out.println(memberCount + "\t" + (long) putAll + "\t" + (long) getAll + "\t"
+                + (long) invoke + "\t" + (long) load);
+        }
+    }
+
+    private double measurePutAll(Cache<Integer, String> cache) {
+        long start = System.nanoTime();
+        for (int base = 0; base < ENTRY_COUNT; base += BATCH_SIZE) {
+            Map<Integer, String> batch = new HashMap<Integer, String>(BATCH_SIZE * 2);
+            for (int i = base; i < base + BATCH_SIZE; i++) {
+                batch.put(i, VALUE);
+            }
+            cache.putAll(batch);
+        }
+        return perSecond(ENTRY_COUNT, start);
+    }
+
+    private double measureGetAll(Cache<Integer, String> cache) {
+        long start = System.nanoTime();
+        for (int base = 0; base < ENTRY_COUNT; base += BATCH_SIZE) {
+            Set<Integer> keys = new HashSet<Integer>(BATCH_SIZE * 2);
+            for (int i = base; i < base + BATCH_SIZE; i++) {
+                keys.add(i);
+            }
+            cache.getAll(keys);
+        }
+        return perSecond(ENTRY_COUNT, start);
+    }
+
+    private double measureInvoke(Cache<Integer, String> cache) {
+        AppendProcessor processor = new AppendProcessor();
+        long start = System.nanoTime();
+        for (int i = 0; i < PROCESSOR_COUNT; i++) {
+            cache.invokeEntryProcessor(i % ENTRY_COUNT, processor);
+        }
+        return perSecond(PROCESSOR_COUNT, start);
+    }
+
+    private double measureReadThrough(Cache<Integer, String> cache) {
+        long start = System.nanoTime();
+        for (int i = 0; i < LOAD_COUNT; i++) {
+            cache.get(i);
+        }
+        return perSecond(LOAD_COUNT, start);
+    }
+
+    private static double perSecond(int count, long startNanos) {
+        return count * 1e9 / (System.nanoTime() - startNanos);
+    }
+
+    private static int[] getMemberCounts() {
+        String[] values = System.getProperty("benchmark.members", "1,2,3,4,5,6,7,8").split(",");
+        int[] counts = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            counts[i] = Integer.parseInt(values[i].trim());
+        }
+        return counts;
+    }
+
+    private static class AppendProcessor implements Cache.EntryProcessor<Integer, String>, Serializable {
+        @Override
+        public Object process(Cache.MutableEntry<Integer, String> entry) {
+            String value = entry.exists() ? entry.getValue() : "";
+            entry.setValue(value.length() > VALUE.length() ? VALUE : value + "!");
+            return null;
+        }
+    }
+
+    private static class GeneratingCacheLoader implements CacheLoader<Integer, String>, Serializable {
+        @Override
+        public Cache.Entry<Integer, String> load(final Integer key) {
+            return new Cache.Entry<Integer, String>() {
+                @Override
+                public Integer getKey() {
+                    return key;
+                }
+
+                @Override
+                public String getValue() {
+                    return VALUE + key;
+                }
+            };
+        }
+
+        @Override
+        public Map<Integer, String> loadAll(Collection<? extends Integer> keys) {
+            Map<Integer, String> map = new HashMap<Integer, String>();
+            for (Integer key : keys) {
+                map.put(key, VALUE + key);
+            }
+            return map;
+        }
+    }
+}
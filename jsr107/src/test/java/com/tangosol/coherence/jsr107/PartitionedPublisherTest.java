@@ -0,0 +1,235 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107;
+
+import com.tangosol.util.Converter;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import javax.cache.Cache;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author ycosmado
+ * @since 1.0
+ */
+public class PartitionedPublisherTest {
+    private static final Converter IDENTITY = new Converter() {
+        @Override
+        public Object convert(Object o) {
+            return o;
+        }
+    };
+
+    @Test
+    public void testEmpty() throws Exception {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new PartitionedPublisher<Integer, String>(Collections.<Callable<Map<Integer, Object>>>emptyList(), IDENTITY)
+            .subscribe(subscriber);
+        assertTrue(subscriber.awaitTerminated());
+        assertTrue(subscriber.completed);
+        assertEquals(0, subscriber.values.size());
+    }
+
+    @Test
+    public void testEmitsOnlyWhatIsRequested() throws Exception {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new PartitionedPublisher<Integer, String>(fetches(3, 5, new AtomicInteger()), IDENTITY).subscribe(subscriber);
+        subscriber.subscription.request(4);
+        assertTrue(subscriber.awaitValues(4));
+        Thread.sleep(100);
+        assertEquals(4, subscriber.values.size());
+        assertFalse(subscriber.isTerminated());
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue(subscriber.awaitTerminated());
+        assertTrue(subscriber.completed);
+        assertEquals(15, subscriber.values.size());
+    }
+
+    @Test
+    public void testFetchesOnlyOnDemand() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new PartitionedPublisher<Integer, String>(fetches(16, 5, calls), IDENTITY).subscribe(subscriber);
+        Thread.sleep(100);
+        assertEquals(0, calls.get());
+
+        subscriber.subscription.request(1);
+        assertTrue(subscriber.awaitValues(1));
+        Thread.sleep(100);
+        assertTrue(calls.get() < 16);
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new PartitionedPublisher<Integer, String>(fetches(16, 5, calls), IDENTITY).subscribe(subscriber);
+        subscriber.subscription.request(2);
+        assertTrue(subscriber.awaitValues(2));
+        subscriber.subscription.cancel();
+        int fetched = calls.get();
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        Thread.sleep(100);
+        assertEquals(2, subscriber.values.size());
+        assertEquals(fetched, calls.get());
+        assertFalse(subscriber.isTerminated());
+    }
+
+    @Test
+    public void testFetchError() throws Exception {
+        final RuntimeException failure = new IllegalStateException();
+        List<Callable<Map<Integer, Object>>> fetches = new ArrayList<Callable<Map<Integer, Object>>>();
+        fetches.add(new Callable<Map<Integer, Object>>() {
+            @Override
+            public Map<Integer, Object> call() {
+                throw failure;
+            }
+        });
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new PartitionedPublisher<Integer, String>(fetches, IDENTITY).subscribe(subscriber);
+        subscriber.subscription.request(1);
+        assertTrue(subscriber.awaitTerminated());
+        assertSame(failure, subscriber.error);
+        assertFalse(subscriber.completed);
+    }
+
+    @Test
+    public void testDecodeError() throws Exception {
+        final RuntimeException failure = new IllegalStateException();
+        Converter decoder = new Converter() {
+            @Override
+            public Object convert(Object o) {
+                if ("value2".equals(o)) {
+                    throw failure;
+                }
+                return o;
+            }
+        };
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new PartitionedPublisher<Integer, String>(fetches(1, 5, new AtomicInteger()), decoder).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue(subscriber.awaitTerminated());
+        assertSame(failure, subscriber.error);
+        assertEquals(2, subscriber.values.size());
+
+        // the subscription is over, later requests neither emit nor hang
+        subscriber.subscription.request(1);
+        assertEquals(2, subscriber.values.size());
+    }
+
+    @Test
+    public void testNonPositiveRequest() throws Exception {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new PartitionedPublisher<Integer, String>(fetches(1, 5, new AtomicInteger()), IDENTITY).subscribe(subscriber);
+        subscriber.subscription.request(0);
+        assertTrue(subscriber.awaitTerminated());
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertEquals(0, subscriber.values.size());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullSubscriber() {
+        new PartitionedPublisher<Integer, String>(fetches(1, 1, new AtomicInteger()), IDENTITY).subscribe(null);
+    }
+
+    private static List<Callable<Map<Integer, Object>>> fetches(int partitions, final int perPartition,
+                                                              final AtomicInteger calls) {
+        List<Callable<Map<Integer, Object>>> fetches = new ArrayList<Callable<Map<Integer, Object>>>();
+        for (int i = 0; i < partitions; i++) {
+            final int partition = i;
+            fetches.add(new Callable<Map<Integer, Object>>() {
+                @Override
+                public Map<Integer, Object> call() {
+                    calls.incrementAndGet();
+                    Map<Integer, Object> map = new LinkedHashMap<Integer, Object>();
+                    for (int j = 0; j < perPartition; j++) {
+                        map.put(partition * perPartition + j, "value" + j);
+                    }
+                    return map;
+                }
+            });
+        }
+        return fetches;
+    }
+
+    private static class RecordingSubscriber implements Subscriber<Cache.Entry<Integer, String>> {
+        final List<String> values = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch terminated = new CountDownLatch(1);
+        volatile Subscription subscription;
+        volatile boolean completed;
+        volatile Throwable error;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Cache.Entry<Integer, String> entry) {
+            values.add(entry.getValue());
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            terminated.countDown();
+        }
+
+        boolean awaitTerminated() throws InterruptedException {
+            return terminated.await(5, TimeUnit.SECONDS);
+        }
+
+        boolean isTerminated() {
+            return terminated.getCount() == 0;
+        }
+
+        boolean awaitValues(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (values.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            return values.size() >= count;
+        }
+    }
+}
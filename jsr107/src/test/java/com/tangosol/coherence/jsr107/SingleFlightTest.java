@@ -0,0 +1,137 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * @author ycosmado
+ * @since 1.0
+ */
+public class SingleFlightTest {
+    private static final int THREADS = 8;
+
+    @Test
+    public void testConcurrentCallsAreCoalesced() throws Exception {
+        final SingleFlight<String> singleFlight = new SingleFlight<String>();
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Callable<Object> call = new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                calls.incrementAndGet();
+                started.countDown();
+                release.await();
+                return "value";
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            Future<Object> first = executor.submit(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    return singleFlight.execute("key", call);
+                }
+            });
+            started.await();
+            List<Future<Object>> waiters = new ArrayList<Future<Object>>();
+            for (int i = 1; i < THREADS; i++) {
+                waiters.add(executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() {
+                        return singleFlight.execute("key", call);
+                    }
+                }));
+            }
+            // give the waiters time to join the running call
+            Thread.sleep(100);
+            release.countDown();
+            assertEquals("value", first.get(5, TimeUnit.SECONDS));
+            for (Future<Object> waiter : waiters) {
+                assertEquals("value", waiter.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testLaterCallRunsAgain() {
+        SingleFlight<String> singleFlight = new SingleFlight<String>();
+        final AtomicInteger calls = new AtomicInteger();
+        Callable<Object> call = new Callable<Object>() {
+            @Override
+            public Object call() {
+                return calls.incrementAndGet();
+            }
+        };
+        assertEquals(1, singleFlight.execute("key", call));
+        assertEquals(2, singleFlight.execute("key", call));
+    }
+
+    @Test
+    public void testDifferentKeysRunSeparately() {
+        SingleFlight<String> singleFlight = new SingleFlight<String>();
+        assertEquals("a", singleFlight.execute("a", constant("a")));
+        assertEquals("b", singleFlight.execute("b", constant("b")));
+    }
+
+    @Test
+    public void testRuntimeExceptionIsRethrown() {
+        final IllegalStateException failure = new IllegalStateException();
+        try {
+            new SingleFlight<String>().execute("key", new Callable<Object>() {
+                @Override
+                public Object call() {
+                    throw failure;
+                }
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            assertSame(failure, e);
+        }
+    }
+
+    private static Callable<Object> constant(final Object value) {
+        return new Callable<Object>() {
+            @Override
+            public Object call() {
+                return value;
+            }
+        };
+    }
+}
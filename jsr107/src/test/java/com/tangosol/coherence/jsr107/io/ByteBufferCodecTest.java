@@ -0,0 +1,86 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.io;
+
+import com.tangosol.util.Binary;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author ycosmado
+ * @since 1.0
+ */
+public class ByteBufferCodecTest {
+    private final ClassLoader classLoader = getClass().getClassLoader();
+    private final BinaryCodec codec = BinaryCodecs.raw();
+
+    @Test
+    public void testHeapBuffer() {
+        ByteBuffer value = ByteBuffer.wrap(new byte[] {9, 1, 2, 3, 9}, 1, 3);
+        ByteBuffer read = (ByteBuffer) codec.fromBinary(codec.toBinary(value, classLoader), classLoader);
+        assertEquals(ByteBuffer.wrap(new byte[] {1, 2, 3}), read);
+        assertTrue(read.isReadOnly());
+        assertEquals(1, value.position());
+    }
+
+    @Test
+    public void testDirectBuffer() {
+        ByteBuffer value = ByteBuffer.allocateDirect(20000);
+        for (int i = 0; i < value.capacity(); i++) {
+            value.put(i, (byte) i);
+        }
+        ByteBuffer read = (ByteBuffer) codec.fromBinary(codec.toBinary(value, classLoader), classLoader);
+        assertEquals(value, read);
+        assertEquals(0, value.position());
+    }
+
+    @Test
+    public void testByteArray() {
+        byte[] value = {1, 2, 3};
+        ByteBuffer read = (ByteBuffer) codec.fromBinary(codec.toBinary(value, classLoader), classLoader);
+        byte[] bytes = new byte[read.remaining()];
+        read.get(bytes);
+        assertArrayEquals(value, bytes);
+    }
+
+    @Test
+    public void testSameLayoutAsByteArrayCodec() {
+        byte[] value = {1, 2, 3};
+        Binary binary = codec.toBinary(value, classLoader);
+        assertEquals(BinaryCodecs.forByteArray().toBinary(value, classLoader), binary);
+        assertArrayEquals(value, (byte[]) BinaryCodecs.forByteArray().fromBinary(binary, classLoader));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongType() {
+        codec.toBinary("bytes", classLoader);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOtherFormat() {
+        codec.fromBinary(BinaryCodecs.forLong().toBinary(1L, classLoader), classLoader);
+    }
+}
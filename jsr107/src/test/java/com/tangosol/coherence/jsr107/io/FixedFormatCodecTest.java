@@ -0,0 +1,106 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.io;
+
+import com.tangosol.util.Binary;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author ycosmado
+ * @since 1.0
+ */
+public class FixedFormatCodecTest {
+    private final ClassLoader classLoader = getClass().getClassLoader();
+
+    @Test
+    public void testAsciiString() {
+        BinaryCodec codec = BinaryCodecs.forString();
+        Binary binary = codec.toBinary("key-0123", classLoader);
+        assertEquals(1 + 8, binary.length());
+        assertEquals("key-0123", codec.fromBinary(binary, classLoader));
+    }
+
+    @Test
+    public void testNonAsciiString() {
+        BinaryCodec codec = BinaryCodecs.forString();
+        String value = "café €";
+        Binary binary = codec.toBinary(value, classLoader);
+        assertEquals(1 + 9, binary.length());
+        assertEquals(value, codec.fromBinary(binary, classLoader));
+    }
+
+    @Test
+    public void testEmptyString() {
+        BinaryCodec codec = BinaryCodecs.forString();
+        assertEquals("", codec.fromBinary(codec.toBinary("", classLoader), classLoader));
+    }
+
+    @Test
+    public void testLong() {
+        BinaryCodec codec = BinaryCodecs.forLong();
+        for (long value : new long[] {0L, -1L, Long.MIN_VALUE, Long.MAX_VALUE}) {
+            Binary binary = codec.toBinary(value, classLoader);
+            assertEquals(9, binary.length());
+            assertEquals(value, codec.fromBinary(binary, classLoader));
+        }
+    }
+
+    @Test
+    public void testInteger() {
+        BinaryCodec codec = BinaryCodecs.forInteger();
+        for (int value : new int[] {0, -1, Integer.MIN_VALUE, Integer.MAX_VALUE}) {
+            Binary binary = codec.toBinary(value, classLoader);
+            assertEquals(5, binary.length());
+            assertEquals(value, codec.fromBinary(binary, classLoader));
+        }
+    }
+
+    @Test
+    public void testByteArray() {
+        BinaryCodec codec = BinaryCodecs.forByteArray();
+        byte[] value = {1, 2, 3, -1};
+        assertArrayEquals(value, (byte[]) codec.fromBinary(codec.toBinary(value, classLoader), classLoader));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongType() {
+        BinaryCodecs.forLong().toBinary("1", classLoader);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNull() {
+        BinaryCodecs.forString().toBinary(null, classLoader);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOtherFormat() {
+        Binary binary = BinaryCodecs.forInteger().toBinary(1, classLoader);
+        BinaryCodecs.forLong().fromBinary(binary, classLoader);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyBinary() {
+        BinaryCodecs.forString().fromBinary(new Binary(), classLoader);
+    }
+}
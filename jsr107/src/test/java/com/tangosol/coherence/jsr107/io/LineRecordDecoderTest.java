@@ -0,0 +1,101 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.io;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author ycosmado
+ * @since 1.0
+ */
+public class LineRecordDecoderTest {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final LineRecordDecoder<String, String> decoder = new LineRecordDecoder<String, String>(UTF8) {
+        @Override
+        protected Map.Entry<String, String> decodeLine(String line) {
+            int comma = line.indexOf(',');
+            return new AbstractMap.SimpleImmutableEntry<String, String>(line.substring(0, comma),
+                line.substring(comma + 1));
+        }
+    };
+
+    @Test
+    public void testLines() {
+        assertEquals(Arrays.asList("a=1", "b=2", "c=3"), decodeAll("a,1\nb,2\r\nc,3\n", true));
+    }
+
+    @Test
+    public void testEmptyLinesAreSkipped() {
+        assertEquals(Arrays.asList("a=1", "b=2"), decodeAll("\na,1\n\r\n\nb,2\n", true));
+    }
+
+    @Test
+    public void testLastLineWithoutTerminator() {
+        ByteBuffer buffer = UTF8.encode("a,1\nb,2");
+        assertEquals("a", decoder.decode(buffer, false).getKey());
+        assertNull(decoder.decode(buffer, false));
+        assertEquals(3, buffer.remaining());
+        assertEquals("b", decoder.decode(buffer, true).getKey());
+        assertNull(decoder.decode(buffer, true));
+    }
+
+    @Test
+    public void testPartialRecordIsLeftInTheBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        buffer.put(UTF8.encode("a,1\nb,"));
+        buffer.flip();
+        assertEquals("a", decoder.decode(buffer, false).getKey());
+        assertNull(decoder.decode(buffer, false));
+        buffer.compact();
+        buffer.put(UTF8.encode("2\n"));
+        buffer.flip();
+        Map.Entry<String, String> entry = decoder.decode(buffer, false);
+        assertEquals("b", entry.getKey());
+        assertEquals("2", entry.getValue());
+    }
+
+    @Test
+    public void testMultiByteCharacters() {
+        assertEquals(Arrays.asList("clé=€"), decodeAll("clé,€\n", true));
+    }
+
+    private List<String> decodeAll(String text, boolean endOfInput) {
+        ByteBuffer buffer = UTF8.encode(text);
+        List<String> records = new ArrayList<String>();
+        Map.Entry<String, String> entry;
+        while ((entry = decoder.decode(buffer, endOfInput)) != null) {
+            records.add(entry.getKey() + "=" + entry.getValue());
+        }
+        return records;
+    }
+}
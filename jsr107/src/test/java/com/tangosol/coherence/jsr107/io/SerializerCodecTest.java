@@ -0,0 +1,67 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.io;
+
+import com.tangosol.util.Binary;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * @author ycosmado
+ * @since 1.0
+ */
+public class SerializerCodecTest {
+    private final ClassLoader classLoader = getClass().getClassLoader();
+
+    @Test
+    public void testRoundTrip() {
+        BinaryCodec codec = BinaryCodecs.externalizableLite();
+        Map<String, Object> value = new HashMap<String, Object>();
+        value.put("a", 1L);
+        value.put("b", Arrays.asList("x", "y"));
+        Binary binary = codec.toBinary(value, classLoader);
+        assertEquals(value, codec.fromBinary(binary, classLoader));
+    }
+
+    @Test
+    public void testRoundTripAcrossInstances() {
+        Binary binary = BinaryCodecs.externalizableLite().toBinary("value", classLoader);
+        assertEquals("value", BinaryCodecs.externalizableLite().fromBinary(binary, classLoader));
+    }
+
+    @Test
+    public void testEquality() {
+        assertEquals(BinaryCodecs.externalizableLite(), BinaryCodecs.externalizableLite());
+        assertEquals(BinaryCodecs.externalizableLite().hashCode(), BinaryCodecs.externalizableLite().hashCode());
+        assertFalse(BinaryCodecs.externalizableLite().equals(BinaryCodecs.forString()));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullFactory() {
+        new SerializerCodec(null);
+    }
+}
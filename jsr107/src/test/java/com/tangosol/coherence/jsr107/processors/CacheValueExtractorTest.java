@@ -0,0 +1,69 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.processors;
+
+import com.tangosol.coherence.jsr107.io.DefaultSerializerFactory;
+import com.tangosol.coherence.jsr107.io.LongCodec;
+import com.tangosol.coherence.jsr107.io.PofSerializerFactory;
+import com.tangosol.coherence.jsr107.io.SerializerCodec;
+import com.tangosol.coherence.jsr107.io.StringCodec;
+import com.tangosol.util.extractor.ReflectionExtractor;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * @author ycosmado
+ * @since 1.0
+ */
+public class CacheValueExtractorTest {
+
+    @Test
+    public void testEqualWithEqualCodecs() {
+        CacheValueExtractor extractor1 = new CacheValueExtractor(new ReflectionExtractor("length"),
+            new SerializerCodec(new PofSerializerFactory("pof-config.xml")));
+        CacheValueExtractor extractor2 = new CacheValueExtractor(new ReflectionExtractor("length"),
+            new SerializerCodec(new PofSerializerFactory("pof-config.xml")));
+        assertEquals(extractor1, extractor2);
+        assertEquals(extractor1.hashCode(), extractor2.hashCode());
+        assertEquals(new CacheValueExtractor(new ReflectionExtractor("length"), new StringCodec()),
+            new CacheValueExtractor(new ReflectionExtractor("length"), new StringCodec()));
+    }
+
+    @Test
+    public void testNotEqualWithOtherSerializers() {
+        CacheValueExtractor pof = new CacheValueExtractor(new ReflectionExtractor("length"),
+            new SerializerCodec(new PofSerializerFactory("pof-config.xml")));
+        assertFalse(pof.equals(new CacheValueExtractor(new ReflectionExtractor("length"),
+            new SerializerCodec(new PofSerializerFactory("other-pof-config.xml")))));
+        assertFalse(pof.equals(new CacheValueExtractor(new ReflectionExtractor("length"),
+            new SerializerCodec(new DefaultSerializerFactory()))));
+    }
+
+    @Test
+    public void testNotEqualWithOtherCodecs() {
+        CacheValueExtractor extractor = new CacheValueExtractor(new ReflectionExtractor("length"), new StringCodec());
+        assertFalse(extractor.equals(new CacheValueExtractor(new ReflectionExtractor("length"), new LongCodec())));
+        assertFalse(extractor.equals(new CacheValueExtractor(new ReflectionExtractor("length"), null)));
+        assertFalse(new CacheValueExtractor(new ReflectionExtractor("length"), null).equals(extractor));
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.processors;
+
+import com.tangosol.coherence.jsr107.LoaderLimits;
+import org.junit.Test;
+
+import javax.cache.CacheException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author ycosmado
+ * @since 1.0
+ */
+public class LoaderBulkheadTest {
+
+    @Test
+    public void testNoLimits() {
+        assertNull(LoaderBulkhead.get("noLimits", null));
+    }
+
+    @Test
+    public void testSameLimitsShareBulkhead() {
+        LoaderLimits limits = new LoaderLimits(1, 0, LoaderLimits.OverflowPolicy.FAIL_FAST, 0);
+        LoaderBulkhead bulkhead = LoaderBulkhead.get("shared", limits);
+        assertSame(bulkhead, LoaderBulkhead.get("shared", new LoaderLimits(1, 0, LoaderLimits.OverflowPolicy.FAIL_FAST, 0)));
+        assertNotSame(bulkhead, LoaderBulkhead.get("shared", new LoaderLimits(2, 0, LoaderLimits.OverflowPolicy.FAIL_FAST, 0)));
+    }
+
+    @Test
+    public void testFailFastBeyondConcurrency() {
+        LoaderBulkhead bulkhead = LoaderBulkhead.get("failFast",
+            new LoaderLimits(1, 0, LoaderLimits.OverflowPolicy.FAIL_FAST, 0));
+        bulkhead.enter();
+        try {
+            bulkhead.enter();
+            fail();
+        } catch (CacheException e) {
+            // expected
+        } finally {
+            bulkhead.exit();
+        }
+        bulkhead.enter();
+        bulkhead.exit();
+    }
+
+    @Test
+    public void testQueueWaitsForExit() throws Exception {
+        final LoaderBulkhead bulkhead = LoaderBulkhead.get("queue",
+            new LoaderLimits(1, 0, LoaderLimits.OverflowPolicy.QUEUE, 10000));
+        bulkhead.enter();
+        final CountDownLatch entered = new CountDownLatch(1);
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                bulkhead.enter();
+                entered.countDown();
+                bulkhead.exit();
+            }
+        };
+        thread.start();
+        Thread.sleep(100);
+        bulkhead.exit();
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        thread.join();
+    }
+
+    @Test
+    public void testQueueTimesOut() {
+        LoaderBulkhead bulkhead = LoaderBulkhead.get("queueTimeout",
+            new LoaderLimits(1, 0, LoaderLimits.OverflowPolicy.QUEUE, 100));
+        bulkhead.enter();
+        long start = System.nanoTime();
+        try {
+            bulkhead.enter();
+            fail();
+        } catch (CacheException e) {
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(90));
+        } finally {
+            bulkhead.exit();
+        }
+    }
+
+    @Test
+    public void testFailFastBeyondRate() {
+        LoaderBulkhead bulkhead = LoaderBulkhead.get("rate",
+            new LoaderLimits(0, 2, LoaderLimits.OverflowPolicy.FAIL_FAST, 0));
+        bulkhead.enter();
+        bulkhead.enter();
+        try {
+            bulkhead.enter();
+            fail();
+        } catch (CacheException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testQueueWaitsForToken() {
+        LoaderBulkhead bulkhead = LoaderBulkhead.get("rateQueue",
+            new LoaderLimits(0, 10, LoaderLimits.OverflowPolicy.QUEUE, 1000));
+        for (int i = 0; i < 10; i++) {
+            bulkhead.enter();
+        }
+        long start = System.nanoTime();
+        bulkhead.enter();
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+}
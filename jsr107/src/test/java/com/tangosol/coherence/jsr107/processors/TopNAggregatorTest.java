@@ -0,0 +1,101 @@
+/*
+ *
+ * Copyright (c) 2011. All Rights Reserved. Oracle Corporation.
+ *
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * This software is the confidential and proprietary information of Oracle
+ * Corporation. You shall not disclose such confidential and proprietary
+ * information and shall use it only in accordance with the terms of the license
+ * agreement you entered into with Oracle Corporation.
+ *
+ * Oracle Corporation makes no representations or warranties about the
+ * suitability of the software, either express or implied, including but not
+ * limited to the implied warranties of merchantability, fitness for a
+ * particular purpose, or non-infringement. Oracle Corporation shall not be
+ * liable for any damages suffered by licensee as a result of using, modifying
+ * or distributing this software or its derivatives.
+ *
+ * This notice may not be removed or altered.
+ */
+package com.tangosol.coherence.jsr107.processors;
+
+import com.tangosol.util.extractor.IdentityExtractor;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author ycosmado
+ * @since 1.0
+ */
+public class TopNAggregatorTest {
+
+    @Test
+    public void testMergesMemberResults() {
+        TopNAggregator aggregator = new TopNAggregator(IdentityExtractor.INSTANCE, null, 0, 4);
+        Object page = aggregator.aggregateResults(Arrays.asList(
+            rows("a", 1, "c", 5, "e", 9),
+            rows("b", 2, "d", 7),
+            rows("f", 3)));
+        assertEquals(Arrays.asList("a", "b", "f", "c"), page);
+    }
+
+    @Test
+    public void testSkipsOffset() {
+        TopNAggregator aggregator = new TopNAggregator(IdentityExtractor.INSTANCE, null, 2, 2);
+        Object page = aggregator.aggregateResults(Arrays.asList(
+            rows("a", 1, "c", 5, "e", 9),
+            rows("b", 2, "d", 7)));
+        assertEquals(Arrays.asList("c", "d"), page);
+    }
+
+    @Test
+    public void testOffsetBeyondResults() {
+        TopNAggregator aggregator = new TopNAggregator(IdentityExtractor.INSTANCE, null, 10, 5);
+        Object page = aggregator.aggregateResults(Arrays.asList(rows("a", 1), rows("b", 2)));
+        assertEquals(Collections.emptyList(), page);
+    }
+
+    @Test
+    public void testComparator() {
+        TopNAggregator aggregator = new TopNAggregator(IdentityExtractor.INSTANCE, Collections.reverseOrder(), 1, 2);
+        Object page = aggregator.aggregateResults(Arrays.asList(
+            rows("a", 1, "c", 5),
+            rows("b", 2, "d", 7)));
+        assertEquals(Arrays.asList("c", "b"), page);
+    }
+
+    @Test
+    public void testNoResults() {
+        TopNAggregator aggregator = new TopNAggregator(IdentityExtractor.INSTANCE, null, 0, 5);
+        Object page = aggregator.aggregateResults(new ArrayList<Object>());
+        assertTrue(((List) page).isEmpty());
+    }
+
+    @Test
+    public void testParallelAggregatorIsPartial() {
+        TopNAggregator aggregator = new TopNAggregator(IdentityExtractor.INSTANCE, null, 0, 5);
+        assertNotSame(aggregator, aggregator.getParallelAggregator());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOffsetAndLimitOverflow() {
+        new TopNAggregator(IdentityExtractor.INSTANCE, null, Integer.MAX_VALUE, 1);
+    }
+
+    private static List<Object[]> rows(Object... keysAndValues) {
+        List<Object[]> rows = new ArrayList<Object[]>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            rows.add(new Object[] {keysAndValues[i], keysAndValues[i + 1]});
+        }
+        return rows;
+    }
+}